@@ -2,8 +2,10 @@ package dev.nerdysoft_tech_task;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NerdySoftTechTaskApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,34 @@
+package dev.nerdysoft_tech_task.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves and accepts {@code application/cbor} for clients that ask for it
+ * (kiosks, sync service). The CBOR mapper is a copy of the application
+ * {@link ObjectMapper}, so it has the same modules and settings as the JSON
+ * one; JSON stays the default.
+ * Schema of the payloads is in {@code schema/dto.cddl}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class CborConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(
+            List<HttpMessageConverter<?>> converters
+    ) {
+        // Spring MVC registers a CBOR converter with a plain mapper when CBOR is on the classpath
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+    }
+}
@@ -0,0 +1,62 @@
+package dev.nerdysoft_tech_task.config;
+
+import dev.nerdysoft_tech_task.idempotency.IdempotencyFilter;
+import dev.nerdysoft_tech_task.idempotency.IdempotencyStore;
+import dev.nerdysoft_tech_task.repository.IdempotencyRecordRepository;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.HeaderParameter;
+import org.springdoc.core.customizers.OperationCustomizer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "custom.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(
+            IdempotencyRecordRepository repository,
+            @Value("${custom.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${custom.idempotency.capacity:10000}") int capacity
+    ) {
+        return new IdempotencyStore(repository, ttl, capacity);
+    }
+
+    /**
+     * Exceptions of the filter are resolved by {@code RestExceptionHandler},
+     * so their bodies look like the ones of controllers.
+     */
+    @Bean
+    public IdempotencyFilter idempotencyFilter(
+            IdempotencyStore idempotencyStore,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            @Value("${custom.idempotency.inFlightWait:PT10S}") Duration inFlightWait
+    ) {
+        return new IdempotencyFilter(idempotencyStore, transactionManager, exceptionResolver, inFlightWait);
+    }
+
+    @Bean
+    public OperationCustomizer idempotencyKeyHeaderCustomizer() {
+        return (operation, handlerMethod) -> {
+            if (!handlerMethod.hasMethodAnnotation(GetMapping.class)) {
+                operation.addParametersItem(new HeaderParameter()
+                        .name(IdempotencyFilter.KEY_HEADER)
+                        .description("Optional unique key of the request, a retry with the same key gets the stored response instead of running again")
+                        .required(false)
+                        .schema(new StringSchema().maxLength(255)));
+            }
+            return operation;
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package dev.nerdysoft_tech_task.config;
+
+import dev.nerdysoft_tech_task.jfr.JfrEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class JfrConfig {
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(
+            @Value("${custom.jfr.directory:${java.io.tmpdir}/nerdysoft-jfr}") Path directory,
+            @Value("${custom.jfr.onDemand.maxAge:PT30M}") Duration maxAge,
+            @Value("${custom.jfr.onDemand.maxSize:256MB}") DataSize maxSize
+    ) {
+        return new JfrEndpoint(directory, maxAge, maxSize.toBytes());
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> continuousJfrRecording(
+            JfrEndpoint jfrEndpoint,
+            @Value("${custom.jfr.continuous.enabled:false}") boolean enabled,
+            @Value("${custom.jfr.continuous.settings:default}") String settings,
+            @Value("${custom.jfr.continuous.maxAge:PT15M}") Duration maxAge,
+            @Value("${custom.jfr.continuous.maxSize:256MB}") DataSize maxSize
+    ) {
+        return event -> {
+            if (enabled) {
+                jfrEndpoint.startContinuous(settings, maxAge, maxSize.toBytes());
+            }
+        };
+    }
+}
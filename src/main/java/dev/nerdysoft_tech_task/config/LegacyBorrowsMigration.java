@@ -0,0 +1,69 @@
+package dev.nerdysoft_tech_task.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * One-time move of borrows from the {@code members_borrowed_books} join table,
+ * used before loans had their own table, into {@code loans}. Their borrow date
+ * is unknown, so they are treated as borrowed at the migration, due after one
+ * loan period. The old table is dropped afterwards; without it this is a no-op.
+ * <p>
+ * Runs after Hibernate has updated the schema (it depends on the
+ * {@link EntityManagerFactory}) and before the web server takes requests.
+ */
+@Slf4j
+@Component
+public class LegacyBorrowsMigration implements InitializingBean {
+
+    static final String LEGACY_TABLE = "members_borrowed_books";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${custom.loan.period:14d}")
+    private Duration loanPeriod;
+
+    public LegacyBorrowsMigration(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    void migrate() {
+        Boolean legacyTableExists = jdbcTemplate.queryForObject(
+                "select to_regclass(?) is not null", Boolean.class, LEGACY_TABLE);
+        if (!Boolean.TRUE.equals(legacyTableExists)) {
+            return;
+        }
+
+        Integer migrated = transactionTemplate.execute(status -> {
+            int inserted = jdbcTemplate.update("""
+                    insert into loans (member_id, book_id, borrowed_at, due_at, overdue)
+                    select distinct member_id, book_id, now(), now() + ? * interval '1 second', false
+                    from members_borrowed_books
+                    on conflict (member_id, book_id) do nothing
+                    """, loanPeriod.toSeconds());
+            jdbcTemplate.execute("drop table " + LEGACY_TABLE);
+            return inserted;
+        });
+
+        log.info("Moved {} borrows from {} to loans", migrated, LEGACY_TABLE);
+    }
+}
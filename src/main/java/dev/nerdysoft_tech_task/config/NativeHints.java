@@ -0,0 +1,101 @@
+package dev.nerdysoft_tech_task.config;
+
+import dev.nerdysoft_tech_task.dto.*;
+import dev.nerdysoft_tech_task.mapper.BookMapper;
+import dev.nerdysoft_tech_task.mapper.BranchMapper;
+import dev.nerdysoft_tech_task.mapper.LoanMapper;
+import dev.nerdysoft_tech_task.mapper.MemberMapper;
+import dev.nerdysoft_tech_task.model.*;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image / AOT build ({@code -Pnative}).
+ * Spring infers most of them from controllers and repositories; these cover
+ * what it can't see: DTOs inside pages and collections, MapStruct
+ * implementations and Lombok builders, and entities read by Hibernate.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+public class NativeHints {
+
+    private static final List<Class<?>> DTOS = List.of(
+            BookDTO.class,
+            MemberDTO.class,
+            BorrowedBookDTO.class,
+            LoanDTO.class,
+            BranchDTO.class,
+            BranchStockDTO.class,
+            BookAvailabilityDTO.class,
+            AvailabilityStatsDTO.class,
+            StockTransferDTO.class,
+            ErrorDTO.class,
+            ErrorDTO.ErrorDetail.class
+    );
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Book.class,
+            Member.class,
+            Loan.class,
+            Branch.class,
+            BranchStock.class,
+            StockSlot.class,
+            IdempotencyRecord.class
+    );
+
+    private static final List<Class<?>> MAPPERS = List.of(
+            BookMapper.class,
+            MemberMapper.class,
+            LoanMapper.class,
+            BranchMapper.class
+    );
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(
+                RuntimeHints hints,
+                ClassLoader classLoader
+        ) {
+            BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+            for (Class<?> dto : DTOS) {
+                bindingHints.registerReflectionHints(hints.reflection(), dto);
+                registerBuilder(hints, dto);
+            }
+
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+                registerBuilder(hints, entity);
+            }
+
+            for (Class<?> mapper : MAPPERS) {
+                hints.reflection().registerType(TypeReference.of(mapper.getName() + "Impl"),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            hints.resources().registerPattern("schema/*.cddl");
+        }
+
+        private static void registerBuilder(
+                RuntimeHints hints,
+                Class<?> type
+        ) {
+            hints.reflection().registerTypeIfPresent(
+                    type.getClassLoader(),
+                    type.getName() + "$" + type.getSimpleName() + "Builder",
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.nerdysoft_tech_task.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * In the {@code reactive} profile requests are served by Netty over R2DBC, while
+ * scheduled jobs (overdue loans, hot books, member write-behind) keep using JPA.
+ * Spring Boot skips the JDBC DataSource once an R2DBC ConnectionFactory exists,
+ * so it is declared here, and the JPA transaction manager is made primary for
+ * {@code @Transactional}. Netty is declared because Tomcat, being on the
+ * classpath for the servlet stack, would be picked otherwise.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(
+            DataSourceProperties properties
+    ) {
+        return properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory
+    ) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(
+            ReactiveTransactionManager reactiveTransactionManager
+    ) {
+        return TransactionalOperator.create(reactiveTransactionManager);
+    }
+}
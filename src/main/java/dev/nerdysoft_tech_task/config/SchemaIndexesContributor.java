@@ -0,0 +1,46 @@
+package dev.nerdysoft_tech_task.config;
+
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.relational.SimpleAuxiliaryDatabaseObject;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+
+import java.util.Set;
+
+/**
+ * Indexes that {@code @Index} can't describe, created with the tables by
+ * {@code ddl-auto}. Schema updates only create them when missing and never
+ * drop them. Registered in {@code META-INF/services}.
+ * <ul>
+ *     <li>{@code idx_books_title_prefix} - titles in byte order, so a title
+ *     prefix is an index range under any database collation, see
+ *     {@code BookSpecifications}</li>
+ * </ul>
+ */
+public class SchemaIndexesContributor implements AdditionalMappingContributor {
+
+    static final String BOOKS_TITLE_PREFIX_INDEX = """
+            create index if not exists idx_books_title_prefix on books (title collate "C")
+            """;
+
+    @Override
+    public String getContributorName() {
+        return "nerdysoft-schema-indexes";
+    }
+
+    @Override
+    public void contribute(
+            AdditionalMappingContributions contributions,
+            InFlightMetadataCollector metadata,
+            ResourceStreamLocator resourceStreamLocator,
+            MetadataBuildingContext buildingContext
+    ) {
+        contributions.contributeAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                metadata.getDatabase().getDefaultNamespace(),
+                new String[]{BOOKS_TITLE_PREFIX_INDEX},
+                new String[0],
+                Set.of()));
+    }
+}
@@ -0,0 +1,46 @@
+package dev.nerdysoft_tech_task.config;
+
+import dev.nerdysoft_tech_task.sqlstats.SqlStatsFilter;
+import dev.nerdysoft_tech_task.sqlstats.SqlStatsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "custom.sqlStats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsConfig {
+
+    /**
+     * Statement inspector is only set when none is configured, e.g. by tests.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatsHibernateCustomizer() {
+        SqlStatsListener listener = new SqlStatsListener();
+
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, listener);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatsListener.class.getName());
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(listener));
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public SqlStatsFilter sqlStatsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${custom.sqlStats.slowThreshold:PT0.5S}") Duration slowThreshold,
+            @Value("${custom.sqlStats.statementThreshold:20}") int statementThreshold,
+            @Value("${custom.sqlStats.maxLoggedStatements:50}") int maxLoggedStatements
+    ) {
+        return new SqlStatsFilter(meterRegistry, slowThreshold, statementThreshold, maxLoggedStatements);
+    }
+}
@@ -0,0 +1,40 @@
+package dev.nerdysoft_tech_task.config;
+
+import dev.nerdysoft_tech_task.tracing.CommitObservationListener;
+import dev.nerdysoft_tech_task.tracing.FileSpanExporter;
+import dev.nerdysoft_tech_task.tracing.LayerObservationAspect;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "custom.tracing.layers", havingValue = "true", matchIfMissing = true)
+    public LayerObservationAspect layerObservationAspect(
+            ObservationRegistry observationRegistry
+    ) {
+        return new LayerObservationAspect(observationRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "custom.tracing.layers", havingValue = "true", matchIfMissing = true)
+    public CommitObservationListener commitObservationListener(
+            ObservationRegistry observationRegistry
+    ) {
+        return new CommitObservationListener(observationRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "custom.tracing.file")
+    public FileSpanExporter fileSpanExporter(
+            @Value("${custom.tracing.file}") Path file
+    ) {
+        return new FileSpanExporter(file);
+    }
+}
@@ -1,8 +1,10 @@
 package dev.nerdysoft_tech_task.controller;
 
 import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
 import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
 import dev.nerdysoft_tech_task.service.BookService;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,21 +16,34 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.validation.BindException;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Set;
 
 @Tag(name = "Book API", description = "Operations with books")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/books")
 @RequiredArgsConstructor
 public class BookController {
 
     private final BookService bookService;
+    private final BookDTOValidator bookDTOValidator;
+
+    @InitBinder("bookDTO")
+    public void initBookDTOBinder(
+            WebDataBinder binder
+    ) {
+        binder.setValidator(bookDTOValidator);
+    }
 
     @Operation(summary = "Get book by id")
     @ApiResponses(value = {
@@ -64,23 +79,27 @@ public class BookController {
         return bookService.findById(id);
     }
 
-    @Operation(summary = "Get all books")
+    @Operation(
+            summary = "Get all books",
+            description = "Books can be sorted only by id, title and author")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Books found"),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Invalid Pageable supplied")
+                    description = "Invalid Pageable or unsupported sort property supplied")
     })
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public Page<BookDTO> findAll(
+            @ParameterObject
+            BookFilterDTO filter,
             @ParameterObject
             @PageableDefault(size = 20)
             Pageable pageable
     ) {
-        return bookService.findAll(pageable);
+        return bookService.findAll(filter, pageable);
     }
 
     @Operation(summary = "Get all borrowed books with or without borrowed amount")
@@ -164,6 +183,26 @@ public class BookController {
         return bookService.createBook(dto);
     }
 
+    @Operation(summary = "Import books",
+            description = "Every entry adds one copy like POST /books. Nothing is imported if any entry is invalid")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Books successfully imported"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid BookDTO supplied, field names are prefixed with the entry index")
+    })
+    @PostMapping("/import")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<BookDTO> importBooks(
+            @Parameter(description = "Books to import")
+            @RequestBody
+            List<BookDTO> dtos
+    ) throws BindException {
+        return bookService.importBooks(dtos);
+    }
+
     @Operation(summary = "Update book")
     @ApiResponses(value = {
             @ApiResponse(
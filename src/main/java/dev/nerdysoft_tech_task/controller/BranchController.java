@@ -0,0 +1,84 @@
+package dev.nerdysoft_tech_task.controller;
+
+import dev.nerdysoft_tech_task.dto.BranchDTO;
+import dev.nerdysoft_tech_task.service.BranchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Branch API", description = "Operations with library branches")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/branches")
+@RequiredArgsConstructor
+public class BranchController {
+
+    private final BranchService branchService;
+
+    @Operation(summary = "Get all branches")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Branches found"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid Pageable supplied")
+    })
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public Page<BranchDTO> findAll(
+            @ParameterObject
+            @PageableDefault(size = 20)
+            Pageable pageable
+    ) {
+        return branchService.findAll(pageable);
+    }
+
+    @Operation(summary = "Create a new branch")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Branch successfully created",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BranchDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                                "id": 1,
+                                                "name": "Downtown"
+                                            }
+                                            """))),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = """
+                                    Possible errors:
+                                    1. Invalid BranchDTO supplied
+                                    2. Branch with given name already exists
+                                  """)
+    })
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public BranchDTO createBranch(
+            @Parameter(description = "New branch data")
+            @RequestBody
+            @Valid
+            BranchDTO dto
+    ) {
+        return branchService.createBranch(dto);
+    }
+}
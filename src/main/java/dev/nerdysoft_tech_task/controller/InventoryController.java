@@ -0,0 +1,168 @@
+package dev.nerdysoft_tech_task.controller;
+
+import dev.nerdysoft_tech_task.dto.BookAvailabilityDTO;
+import dev.nerdysoft_tech_task.dto.StockTransferDTO;
+import dev.nerdysoft_tech_task.service.InventoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Inventory API", description = "Stock of books across central stock and branches")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Validated
+@RequestMapping("/books/{book_id}")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @Operation(summary = "Get availability of book in central stock and every branch")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Book found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BookAvailabilityDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                                "bookId": 1,
+                                                "centralAmount": 4,
+                                                "totalAmount": 9,
+                                                "branches": [
+                                                    {
+                                                        "branchId": 1,
+                                                        "branchName": "Downtown",
+                                                        "amount": 5
+                                                    }
+                                                ]
+                                            }
+                                            """))),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid book_id supplied"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Book not found")
+    })
+    @GetMapping("/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public BookAvailabilityDTO findAvailability(
+            @Parameter(description = "Book id")
+            @PathVariable("book_id")
+            Long bookId
+    ) {
+        return inventoryService.findAvailability(bookId);
+    }
+
+    @Operation(
+            summary = "Transfer copies of book between branches",
+            description = "Absent fromBranchId or toBranchId means the central stock")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Copies successfully transferred, new availability returned"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = """
+                                    Possible errors:
+                                    1. Invalid StockTransferDTO supplied
+                                    2. Source and target are the same
+                                    3. Not enough copies in source
+                                  """),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = """
+                                    Possible errors:
+                                    1. Book not found
+                                    2. Branch not found
+                                  """)
+    })
+    @PostMapping("/transfers")
+    @ResponseStatus(HttpStatus.OK)
+    public BookAvailabilityDTO transfer(
+            @Parameter(description = "Book id")
+            @PathVariable("book_id")
+            Long bookId,
+            @Parameter(description = "Transfer data")
+            @RequestBody
+            @Valid
+            StockTransferDTO dto
+    ) {
+        return inventoryService.transfer(bookId, dto);
+    }
+
+    @Operation(
+            summary = "Spread central stock of book over stock slots",
+            description = """
+                        Meant for books with many concurrent borrows. Central stock is moved into
+                        the given amount of slots and every borrow locks only one of them.
+                        For a book that already has slots only missing empty slots are added.
+                        """)
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slots successfully enabled, new availability returned"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = """
+                                    Possible errors:
+                                    1. Invalid book_id supplied
+                                    2. Invalid slots supplied
+                                  """),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Book not found")
+    })
+    @PutMapping("/slots")
+    @ResponseStatus(HttpStatus.OK)
+    public BookAvailabilityDTO enableSlots(
+            @Parameter(description = "Book id")
+            @PathVariable("book_id")
+            Long bookId,
+            @Parameter(description = "Amount of stock slots")
+            @RequestParam("slots")
+            @Min(value = 1, message = "Min amount of slots is 1")
+            @Max(value = 64, message = "Max amount of slots is 64")
+            Integer slots
+    ) {
+        return inventoryService.enableSlots(bookId, slots);
+    }
+
+    @Operation(summary = "Move stock slots of book back to a single central stock")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slots successfully disabled, new availability returned"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid book_id supplied"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Book not found")
+    })
+    @DeleteMapping("/slots")
+    @ResponseStatus(HttpStatus.OK)
+    public BookAvailabilityDTO disableSlots(
+            @Parameter(description = "Book id")
+            @PathVariable("book_id")
+            Long bookId
+    ) {
+        return inventoryService.disableSlots(bookId);
+    }
+}
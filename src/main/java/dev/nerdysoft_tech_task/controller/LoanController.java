@@ -0,0 +1,48 @@
+package dev.nerdysoft_tech_task.controller;
+
+import dev.nerdysoft_tech_task.dto.LoanDTO;
+import dev.nerdysoft_tech_task.service.LoanService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Loans API", description = "Operations with loans")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/loans")
+@RequiredArgsConstructor
+public class LoanController {
+
+    private final LoanService loanService;
+
+    @Operation(
+            summary = "Get overdue loans",
+            description = "Loans are marked as overdue by a background job, so a loan may appear here with a small delay after its due date")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Overdue loans found"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid Pageable supplied")
+    })
+    @GetMapping("/overdue")
+    @ResponseStatus(HttpStatus.OK)
+    public Page<LoanDTO> findOverdue(
+            @ParameterObject
+            @PageableDefault(size = 20, sort = "dueAt", direction = Sort.Direction.ASC)
+            Pageable pageable
+    ) {
+        return loanService.findOverdue(pageable);
+    }
+}
@@ -4,6 +4,7 @@ import dev.nerdysoft_tech_task.dto.BookDTO;
 import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
 import dev.nerdysoft_tech_task.dto.MemberDTO;
 import dev.nerdysoft_tech_task.service.MemberService;
+import dev.nerdysoft_tech_task.validation.MemberDTOValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,21 +16,32 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Set;
 
 @Tag(name = "Members API", description = "Operations with members")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/members")
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberService memberService;
+    private final MemberDTOValidator memberDTOValidator;
+
+    @InitBinder("memberDTO")
+    public void initMemberDTOBinder(
+            WebDataBinder binder
+    ) {
+        binder.setValidator(memberDTOValidator);
+    }
 
     @Operation(summary = "Get member by id")
     @ApiResponses(value = {
@@ -200,6 +212,45 @@ public class MemberController {
         return memberService.updateMember(id, dto);
     }
 
+    @Operation(
+            summary = "Update member asynchronously",
+            description = """
+                        Selected by the header "Prefer: respond-async".
+                        
+                        The new name is queued and written within a second, without read-your-writes:
+                        1. Several updates of the same member before the write are coalesced, the last one wins
+                        2. Updates of unknown members are dropped when written
+                        3. Queued updates are lost if the application crashes
+                        """)
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Member update accepted"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = """
+                                    Possible errors:
+                                    1. Invalid MemberDTO supplied
+                                    2. Invalid id supplied
+                                  """),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many pending updates, retry after Retry-After seconds")
+    })
+    @PutMapping(value = "/{id}", headers = "Prefer=respond-async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void updateMemberAsync(
+            @Parameter(description = "Member id")
+            @PathVariable("id")
+            Long id,
+            @Parameter(description = "Member new data")
+            @RequestBody
+            @Valid
+            MemberDTO dto
+    ) {
+        memberService.updateMemberAsync(id, dto);
+    }
+
     @Operation(summary = "Delete member")
     @ApiResponses(value = {
             @ApiResponse(
@@ -239,6 +290,9 @@ public class MemberController {
                         2. If the book (book_id) IS currently borrowed by the member (member_id):
                            - Removes the book from member's borrowed books set
                            - Increases available book amount by 1
+                        
+                        If branch_id is given, the copy is taken from or returned to that branch,
+                        otherwise the central stock is used.
                         """)
     @ApiResponses(value = {
             @ApiResponse(
@@ -269,6 +323,7 @@ public class MemberController {
                                     2. Invalid book_id supplied
                                     3. Amount of books with book_id is zero
                                     4. Member borrowed max allowed amount of books
+                                    5. Invalid branch_id supplied
                                   """),
             @ApiResponse(
                     responseCode = "404",
@@ -276,6 +331,7 @@ public class MemberController {
                                     Possible errors:
                                     1. Member not found
                                     2. Book not found
+                                    3. Branch not found
                                   """)
     })
     @PatchMapping("/{member_id}/books/{book_id}")
@@ -286,8 +342,11 @@ public class MemberController {
             Long memberId,
             @Parameter(description = "Book id that member want to borrow or return")
             @PathVariable("book_id")
-            Long bookId
+            Long bookId,
+            @Parameter(description = "Branch where book is borrowed or returned, central stock if absent")
+            @RequestParam(name = "branch_id", required = false)
+            Long branchId
     ) {
-        return memberService.updateBorrowedBooks(memberId, bookId);
+        return memberService.updateBorrowedBooks(memberId, bookId, branchId);
     }
 }
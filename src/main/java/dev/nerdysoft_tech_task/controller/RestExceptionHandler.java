@@ -2,107 +2,197 @@ package dev.nerdysoft_tech_task.controller;
 
 import dev.nerdysoft_tech_task.dto.ErrorDTO;
 import dev.nerdysoft_tech_task.exception.*;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.http.ProblemDetail;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * Error responses are built on a hot path (e.g. thousands of invalid scanner
+ * requests per second), so our business exceptions are created without stack
+ * traces and bodies are filled from precomputed per-status templates.
+ * <p>
+ * With {@code custom.error.problemDetails} responses are RFC 7807
+ * {@code application/problem+json} instead of {@link ErrorDTO}.
+ * Both carry the trace id of the request when tracing is on.
+ */
 @RestControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestExceptionHandler {
 
-    private ErrorDTO buildErrorDTO(
+    private record ErrorTemplate(
             HttpStatus status,
-            WebRequest request,
+            String error,
+            URI type
+    ) {
+        ErrorTemplate(HttpStatus status) {
+            this(status, status.name(), URI.create("about:blank"));
+        }
+    }
+
+    private static final ErrorTemplate NOT_FOUND = new ErrorTemplate(HttpStatus.NOT_FOUND);
+    private static final ErrorTemplate BAD_REQUEST = new ErrorTemplate(HttpStatus.BAD_REQUEST);
+    private static final ErrorTemplate CONFLICT = new ErrorTemplate(HttpStatus.CONFLICT);
+    private static final ErrorTemplate UNPROCESSABLE_ENTITY = new ErrorTemplate(HttpStatus.UNPROCESSABLE_ENTITY);
+    private static final ErrorTemplate TOO_MANY_REQUESTS = new ErrorTemplate(HttpStatus.TOO_MANY_REQUESTS);
+
+    private final ObjectProvider<Tracer> tracer;
+
+    @Value("${custom.error.problemDetails:false}")
+    private boolean problemDetails;
+
+    private String currentTraceId() {
+        Span span = tracer.getIfAvailable(() -> Tracer.NOOP).currentSpan();
+        if (span == null || span.context().traceId().isEmpty()) {
+            return null;
+        }
+        return span.context().traceId();
+    }
+
+    private Object buildBody(
+            ErrorTemplate template,
+            HttpServletRequest request,
+            String message,
             Set<ErrorDTO.ErrorDetail> details
     ) {
-        return ErrorDTO
-                .builder()
-                .timestamp(LocalDateTime.now())
-                .status(status.value())
-                .error(status.name())
-                .path(request.getDescription(false).replace("uri=", ""))
-                .details(details)
-                .build();
+        String traceId = currentTraceId();
+
+        if (problemDetails) {
+            ProblemDetail problem = ProblemDetail.forStatusAndDetail(template.status(), message);
+            problem.setType(template.type());
+            problem.setInstance(URI.create(request.getRequestURI()));
+            problem.setProperty("timestamp", LocalDateTime.now());
+            problem.setProperty("details", details);
+            if (traceId != null) {
+                problem.setProperty("traceId", traceId);
+            }
+            return problem;
+        }
+
+        return new ErrorDTO(
+                LocalDateTime.now(),
+                template.status().value(),
+                template.error(),
+                request.getRequestURI(),
+                details,
+                traceId);
+    }
+
+    private Object buildBody(
+            ErrorTemplate template,
+            HttpServletRequest request,
+            String message
+    ) {
+        return buildBody(template, request, message, Set.of(new ErrorDTO.ErrorDetail(null, message)));
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(NotFoundException.class)
-    public ErrorDTO notFoundException(
+    public Object notFoundException(
             NotFoundException e,
-            WebRequest request
+            HttpServletRequest request
     ) {
-        Set<ErrorDTO.ErrorDetail> details = Set.of(
-                ErrorDTO.ErrorDetail
-                        .builder()
-                        .value(null)
-                        .message(e.getMessage())
-                        .build());
-
-        return buildErrorDTO(HttpStatus.NOT_FOUND, request, details);
+        return buildBody(NOT_FOUND, request, e.getMessage());
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler({
             BookCantBeBorrowedException.class,
             CantBeDeletedException.class,
-            NotUniqueException.class
+            CantBeTransferredException.class,
+            NotUniqueException.class,
+            UnsupportedSortException.class,
+            InvalidIdempotencyKeyException.class
     })
-    public ErrorDTO businessException(
+    public Object businessException(
             RuntimeException e,
-            WebRequest request
+            HttpServletRequest request
     ) {
-        Set<ErrorDTO.ErrorDetail> details = Set.of(
-                ErrorDTO.ErrorDetail
-                        .builder()
-                        .value(null)
-                        .message(e.getMessage())
-                        .build());
-
-        return buildErrorDTO(HttpStatus.BAD_REQUEST, request, details);
+        return buildBody(BAD_REQUEST, request, e.getMessage());
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public Object idempotencyKeyInProgressException(
+            IdempotencyKeyInProgressException e,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        return buildBody(CONFLICT, request, e.getMessage());
+    }
+
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public Object idempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException e,
+            HttpServletRequest request
+    ) {
+        return buildBody(UNPROCESSABLE_ENTITY, request, e.getMessage());
+    }
+
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public Object tooManyRequestsException(
+            TooManyRequestsException e,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+
+        return buildBody(TOO_MANY_REQUESTS, request, e.getMessage());
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(ConstraintViolationException.class)
-    public ErrorDTO constraintViolation(
+    public Object constraintViolation(
             ConstraintViolationException e,
-            WebRequest request
+            HttpServletRequest request
     ) {
-        Set<ErrorDTO.ErrorDetail> details = e.getConstraintViolations()
-                .stream()
-                .map(violation ->
-                        ErrorDTO.ErrorDetail
-                                .builder()
-                                .value(violation.getPropertyPath().toString())
-                                .message(violation.getMessage())
-                                .build())
-                .collect(Collectors.toSet());
-
-        return buildErrorDTO(HttpStatus.BAD_REQUEST, request, details);
+        Set<ConstraintViolation<?>> violations = e.getConstraintViolations();
+        Set<ErrorDTO.ErrorDetail> details = HashSet.newHashSet(violations.size());
+        for (ConstraintViolation<?> violation : violations) {
+            details.add(new ErrorDTO.ErrorDetail(violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+
+        return buildBody(BAD_REQUEST, request, "Validation failed", details);
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ErrorDTO methodArgumentValidation(
-            MethodArgumentNotValidException e,
-            WebRequest request
+    @ExceptionHandler(BindException.class)
+    public Object methodArgumentValidation(
+            BindException e,
+            HttpServletRequest request
     ) {
-        Set<ErrorDTO.ErrorDetail> details = e.getBindingResult().getFieldErrors()
-                .stream()
-                .map(fieldError ->
-                        ErrorDTO.ErrorDetail
-                                .builder()
-                                .value(fieldError.getField())
-                                .message(fieldError.getDefaultMessage())
-                                .build())
-                .collect(Collectors.toSet());
-
-        return buildErrorDTO(HttpStatus.BAD_REQUEST, request, details);
+        List<FieldError> fieldErrors = e.getBindingResult().getFieldErrors();
+        Set<ErrorDTO.ErrorDetail> details = HashSet.newHashSet(fieldErrors.size());
+        for (FieldError fieldError : fieldErrors) {
+            details.add(new ErrorDTO.ErrorDetail(fieldError.getField(), fieldError.getDefaultMessage()));
+        }
+
+        return buildBody(BAD_REQUEST, request, "Validation failed", details);
     }
 }
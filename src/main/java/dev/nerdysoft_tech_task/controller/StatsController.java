@@ -0,0 +1,57 @@
+package dev.nerdysoft_tech_task.controller;
+
+import dev.nerdysoft_tech_task.dto.AvailabilityStatsDTO;
+import dev.nerdysoft_tech_task.service.StatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Stats API", description = "Library-wide totals")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final StatsService statsService;
+
+    @Operation(
+            summary = "Get availability summary",
+            description = """
+                        Totals are counted in memory as books, copies and loans change and are recounted
+                        from the database every few minutes (reconciledAt). totalCopies includes copies
+                        in central stock, stock slots, branches and on loan.
+                        """)
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Summary found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AvailabilityStatsDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                                "totalTitles": 120,
+                                                "totalCopies": 450,
+                                                "availableCopies": 390,
+                                                "copiesOnLoan": 60,
+                                                "membersWithLoans": 25,
+                                                "reconciledAt": "2025-01-01T12:00:00"
+                                            }
+                                            """)))
+    })
+    @GetMapping("/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public AvailabilityStatsDTO findAvailabilityStats() {
+        return statsService.findAvailabilityStats();
+    }
+}
@@ -0,0 +1,90 @@
+package dev.nerdysoft_tech_task.controller.reactive;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
+import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
+import dev.nerdysoft_tech_task.service.ReactiveBookService;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import static dev.nerdysoft_tech_task.controller.reactive.HandlerSupport.*;
+
+/**
+ * Functional counterpart of {@code BookController}.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class BookHandler {
+
+    private final ReactiveBookService reactiveBookService;
+    private final BookDTOValidator bookDTOValidator;
+
+    public Mono<ServerResponse> findById(
+            ServerRequest request
+    ) {
+        return reactiveBookService
+                .findById(longPathVariable(request, "id"))
+                .flatMap(book -> ServerResponse.ok().bodyValue(book));
+    }
+
+    public Mono<ServerResponse> findAll(
+            ServerRequest request
+    ) {
+        BookFilterDTO filter = new BookFilterDTO(
+                request.queryParam("author").orElse(null),
+                request.queryParam("titleStartsWith").orElse(null),
+                request.queryParam("available").map(Boolean::valueOf).orElse(null),
+                request.queryParam("borrowed").map(Boolean::valueOf).orElse(null));
+
+        return reactiveBookService
+                .findAll(filter, pageable(request))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page));
+    }
+
+    public Mono<ServerResponse> findAllBorrowedBooksTitles(
+            ServerRequest request
+    ) {
+        Boolean showAmountBorrowed = request
+                .queryParam("showAmountBorrowed")
+                .map(Boolean::valueOf)
+                .orElseThrow(() -> new ServerWebInputException("Required parameter showAmountBorrowed is not present"));
+
+        return ServerResponse
+                .ok()
+                .body(reactiveBookService.findAllBorrowedBooksTitles(showAmountBorrowed), BorrowedBookDTO.class);
+    }
+
+    public Mono<ServerResponse> createBook(
+            ServerRequest request
+    ) {
+        return validBody(request, BookDTO.class, "bookDTO", bookDTOValidator)
+                .flatMap(reactiveBookService::createBook)
+                .flatMap(book -> ServerResponse.status(HttpStatus.CREATED).bodyValue(book));
+    }
+
+    public Mono<ServerResponse> updateBook(
+            ServerRequest request
+    ) {
+        Long id = longPathVariable(request, "id");
+
+        return validBody(request, BookDTO.class, "bookDTO", bookDTOValidator)
+                .flatMap(dto -> reactiveBookService.updateBook(id, dto))
+                .flatMap(book -> ServerResponse.ok().bodyValue(book));
+    }
+
+    public Mono<ServerResponse> deleteBook(
+            ServerRequest request
+    ) {
+        return reactiveBookService
+                .deleteBook(longPathVariable(request, "id"))
+                .then(ServerResponse.noContent().build());
+    }
+}
@@ -0,0 +1,95 @@
+package dev.nerdysoft_tech_task.controller.reactive;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request parsing shared by the handlers, mirroring what Spring MVC does
+ * for {@code @PathVariable}, {@code @Valid @RequestBody} and {@link Pageable} arguments.
+ */
+final class HandlerSupport {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 2000;
+
+    private HandlerSupport() {
+    }
+
+    static Long longPathVariable(
+            ServerRequest request,
+            String name
+    ) {
+        try {
+            return Long.valueOf(request.pathVariable(name));
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid " + name + " supplied");
+        }
+    }
+
+    static Long longQueryParam(
+            ServerRequest request,
+            String name
+    ) {
+        try {
+            return request.queryParam(name)
+                    .map(Long::valueOf)
+                    .orElse(null);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid " + name + " supplied");
+        }
+    }
+
+    static <T> Mono<T> validBody(
+            ServerRequest request,
+            Class<T> type,
+            String objectName,
+            Validator validator
+    ) {
+        return request
+                .bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .flatMap(body -> {
+                    BeanPropertyBindingResult errors = new BeanPropertyBindingResult(body, objectName);
+                    validator.validate(body, errors);
+                    if (errors.hasErrors()) {
+                        return Mono.error(new WebExchangeBindException(null, errors));
+                    }
+                    return Mono.just(body);
+                });
+    }
+
+    /**
+     * {@code page}, {@code size} and {@code sort=property[,asc|desc]} parameters, defaulting to 20 per page.
+     */
+    static Pageable pageable(
+            ServerRequest request
+    ) {
+        try {
+            int page = request.queryParam("page").map(Integer::parseInt).orElse(0);
+            int size = request.queryParam("size").map(Integer::parseInt).orElse(DEFAULT_PAGE_SIZE);
+
+            List<Sort.Order> orders = new ArrayList<>();
+            for (String sort : request.queryParams().getOrDefault("sort", List.of())) {
+                String[] parts = sort.split(",");
+                Sort.Direction direction = parts.length > 1
+                        ? Sort.Direction.fromString(parts[1])
+                        : Sort.Direction.ASC;
+                orders.add(new Sort.Order(direction, parts[0]));
+            }
+
+            return PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE), Sort.by(orders));
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException("Invalid Pageable supplied");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dev.nerdysoft_tech_task.controller.reactive;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import dev.nerdysoft_tech_task.service.ReactiveMemberService;
+import dev.nerdysoft_tech_task.validation.MemberDTOValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static dev.nerdysoft_tech_task.controller.reactive.HandlerSupport.*;
+
+/**
+ * Functional counterpart of {@code MemberController}.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class MemberHandler {
+
+    private final ReactiveMemberService reactiveMemberService;
+    private final MemberDTOValidator memberDTOValidator;
+
+    public Mono<ServerResponse> findById(
+            ServerRequest request
+    ) {
+        return reactiveMemberService
+                .findById(longPathVariable(request, "id"))
+                .flatMap(member -> ServerResponse.ok().bodyValue(member));
+    }
+
+    public Mono<ServerResponse> findAll(
+            ServerRequest request
+    ) {
+        return reactiveMemberService
+                .findAll(request.queryParam("name").orElse(null), pageable(request))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page));
+    }
+
+    public Mono<ServerResponse> findMemberBooks(
+            ServerRequest request
+    ) {
+        return reactiveMemberService
+                .findMemberBooks(longPathVariable(request, "id"))
+                .collectList()
+                .flatMap(books -> ServerResponse.ok().bodyValue(books));
+    }
+
+    public Mono<ServerResponse> createMember(
+            ServerRequest request
+    ) {
+        return validBody(request, MemberDTO.class, "memberDTO", memberDTOValidator)
+                .flatMap(reactiveMemberService::createMember)
+                .flatMap(member -> ServerResponse.status(HttpStatus.CREATED).bodyValue(member));
+    }
+
+    public Mono<ServerResponse> updateMember(
+            ServerRequest request
+    ) {
+        Long id = longPathVariable(request, "id");
+
+        return validBody(request, MemberDTO.class, "memberDTO", memberDTOValidator)
+                .flatMap(dto -> reactiveMemberService.updateMember(id, dto))
+                .flatMap(member -> ServerResponse.ok().bodyValue(member));
+    }
+
+    public Mono<ServerResponse> updateMemberAsync(
+            ServerRequest request
+    ) {
+        Long id = longPathVariable(request, "id");
+
+        return validBody(request, MemberDTO.class, "memberDTO", memberDTOValidator)
+                .flatMap(dto -> reactiveMemberService.updateMemberAsync(id, dto))
+                .then(ServerResponse.accepted().build());
+    }
+
+    public Mono<ServerResponse> deleteMember(
+            ServerRequest request
+    ) {
+        return reactiveMemberService
+                .deleteMember(longPathVariable(request, "id"))
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> updateBorrowedBooks(
+            ServerRequest request
+    ) {
+        return reactiveMemberService
+                .updateBorrowedBooks(
+                        longPathVariable(request, "member_id"),
+                        longPathVariable(request, "book_id"),
+                        longQueryParam(request, "branch_id"))
+                .collectList()
+                .flatMap(books -> ServerResponse.ok().bodyValue(books));
+    }
+}
@@ -0,0 +1,129 @@
+package dev.nerdysoft_tech_task.controller.reactive;
+
+import dev.nerdysoft_tech_task.dto.ErrorDTO;
+import dev.nerdysoft_tech_task.exception.*;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Functional-route counterpart of {@code RestExceptionHandler}: same statuses and {@link ErrorDTO} bodies,
+ * the trace id is taken from the observation of the exchange.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveErrorFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    @Override
+    public Mono<ServerResponse> filter(
+            ServerRequest request,
+            HandlerFunction<ServerResponse> next
+    ) {
+        return Mono
+                .defer(() -> next.handle(request))
+                .onErrorResume(e -> handle(e, request));
+    }
+
+    private Mono<ServerResponse> handle(
+            Throwable e,
+            ServerRequest request
+    ) {
+        return switch (e) {
+            case NotFoundException notFound -> error(HttpStatus.NOT_FOUND, request, notFound.getMessage());
+            case BookCantBeBorrowedException businessException -> error(HttpStatus.BAD_REQUEST, request, businessException.getMessage());
+            case CantBeDeletedException businessException -> error(HttpStatus.BAD_REQUEST, request, businessException.getMessage());
+            case CantBeTransferredException businessException -> error(HttpStatus.BAD_REQUEST, request, businessException.getMessage());
+            case NotUniqueException businessException -> error(HttpStatus.BAD_REQUEST, request, businessException.getMessage());
+            case UnsupportedSortException businessException -> error(HttpStatus.BAD_REQUEST, request, businessException.getMessage());
+            case TooManyRequestsException tooManyRequests -> tooManyRequests(tooManyRequests, request);
+            case BindException bindException -> validationFailed(bindException.getBindingResult(), request);
+            case WebExchangeBindException bindException -> validationFailed(bindException.getBindingResult(), request);
+            case ServerWebInputException inputException -> error(HttpStatus.BAD_REQUEST, request, inputException.getReason());
+            case IllegalArgumentException illegalArgument -> error(HttpStatus.BAD_REQUEST, request, illegalArgument.getMessage());
+            default -> Mono.error(e);
+        };
+    }
+
+    private Mono<ServerResponse> tooManyRequests(
+            TooManyRequestsException e,
+            ServerRequest request
+    ) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+
+        return error(
+                ServerResponse
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds)),
+                HttpStatus.TOO_MANY_REQUESTS,
+                request,
+                Set.of(new ErrorDTO.ErrorDetail(null, e.getMessage())));
+    }
+
+    private Mono<ServerResponse> validationFailed(
+            BindingResult bindingResult,
+            ServerRequest request
+    ) {
+        List<FieldError> fieldErrors = bindingResult.getFieldErrors();
+        Set<ErrorDTO.ErrorDetail> details = HashSet.newHashSet(fieldErrors.size());
+        for (FieldError fieldError : fieldErrors) {
+            details.add(new ErrorDTO.ErrorDetail(fieldError.getField(), fieldError.getDefaultMessage()));
+        }
+
+        return error(ServerResponse.status(HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST, request, details);
+    }
+
+    private Mono<ServerResponse> error(
+            HttpStatus status,
+            ServerRequest request,
+            String message
+    ) {
+        return error(ServerResponse.status(status), status, request, Set.of(new ErrorDTO.ErrorDetail(null, message)));
+    }
+
+    private Mono<ServerResponse> error(
+            ServerResponse.BodyBuilder response,
+            HttpStatus status,
+            ServerRequest request,
+            Set<ErrorDTO.ErrorDetail> details
+    ) {
+        ErrorDTO body = new ErrorDTO(
+                LocalDateTime.now(),
+                status.value(),
+                status.name(),
+                request.requestPath().value(),
+                details,
+                currentTraceId(request));
+
+        return response.bodyValue(body);
+    }
+
+    private static String currentTraceId(
+            ServerRequest request
+    ) {
+        return ServerRequestObservationContext
+                .findCurrent(request.exchange().getAttributes())
+                .map(context -> context.<TracingObservationHandler.TracingContext>get(TracingObservationHandler.TracingContext.class))
+                .map(TracingObservationHandler.TracingContext::getSpan)
+                .map(span -> span.context().traceId())
+                .filter(traceId -> !traceId.isEmpty())
+                .orElse(null);
+    }
+}
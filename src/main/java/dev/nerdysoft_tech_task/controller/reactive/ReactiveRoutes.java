@@ -0,0 +1,54 @@
+package dev.nerdysoft_tech_task.controller.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.headers;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Books and members API of the {@code reactive} profile, on the same paths as the controllers.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> bookRoutes(
+            BookHandler bookHandler,
+            ReactiveErrorFilter reactiveErrorFilter
+    ) {
+        return route()
+                .path("/books", builder -> builder
+                        .GET("/borrowed", bookHandler::findAllBorrowedBooksTitles)
+                        .GET("/{id}", bookHandler::findById)
+                        .GET("", bookHandler::findAll)
+                        .POST("", bookHandler::createBook)
+                        .PUT("/{id}", bookHandler::updateBook)
+                        .DELETE("/{id}", bookHandler::deleteBook))
+                .filter(reactiveErrorFilter)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> memberRoutes(
+            MemberHandler memberHandler,
+            ReactiveErrorFilter reactiveErrorFilter
+    ) {
+        return route()
+                .path("/members", builder -> builder
+                        .GET("/{id}/books", memberHandler::findMemberBooks)
+                        .GET("/{id}", memberHandler::findById)
+                        .GET("", memberHandler::findAll)
+                        .POST("", memberHandler::createMember)
+                        .PUT("/{id}", headers(headers -> headers.header("Prefer").contains("respond-async")), memberHandler::updateMemberAsync)
+                        .PUT("/{id}", memberHandler::updateMember)
+                        .DELETE("/{id}", memberHandler::deleteMember)
+                        .PATCH("/{member_id}/books/{book_id}", memberHandler::updateBorrowedBooks))
+                .filter(reactiveErrorFilter)
+                .build();
+    }
+}
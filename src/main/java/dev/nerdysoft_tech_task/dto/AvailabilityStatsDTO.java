@@ -0,0 +1,19 @@
+package dev.nerdysoft_tech_task.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Builder
+public record AvailabilityStatsDTO(
+
+        Long totalTitles,
+        Long totalCopies,
+        Long availableCopies,
+        Long copiesOnLoan,
+        Long membersWithLoans,
+        LocalDateTime reconciledAt
+
+) implements Serializable {
+}
@@ -0,0 +1,17 @@
+package dev.nerdysoft_tech_task.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Builder
+public record BookAvailabilityDTO(
+
+        Long bookId,
+        Integer centralAmount,
+        Long totalAmount,
+        List<BranchStockDTO> branches
+
+) implements Serializable {
+}
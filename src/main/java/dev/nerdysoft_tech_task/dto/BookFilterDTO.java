@@ -0,0 +1,23 @@
+package dev.nerdysoft_tech_task.dto;
+
+import io.swagger.v3.oas.annotations.Parameter;
+
+/**
+ * Optional filters of the book list; {@code null} fields don't filter.
+ */
+public record BookFilterDTO(
+
+        @Parameter(description = "Exact author")
+        String author,
+
+        @Parameter(description = "Beginning of the title, case sensitive")
+        String titleStartsWith,
+
+        @Parameter(description = "Only books with (true) or without (false) copies in the central stock")
+        Boolean available,
+
+        @Parameter(description = "Only books borrowed (true) or not borrowed (false) by any member")
+        Boolean borrowed
+
+) {
+}
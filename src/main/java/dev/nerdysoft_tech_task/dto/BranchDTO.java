@@ -0,0 +1,15 @@
+package dev.nerdysoft_tech_task.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.io.Serializable;
+
+public record BranchDTO(
+
+        Long id,
+
+        @NotBlank(message = "Can't be blank")
+        String name
+
+) implements Serializable {
+}
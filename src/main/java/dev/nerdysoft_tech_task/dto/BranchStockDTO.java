@@ -0,0 +1,15 @@
+package dev.nerdysoft_tech_task.dto;
+
+import lombok.Builder;
+
+import java.io.Serializable;
+
+@Builder
+public record BranchStockDTO(
+
+        Long branchId,
+        String branchName,
+        Integer amount
+
+) implements Serializable {
+}
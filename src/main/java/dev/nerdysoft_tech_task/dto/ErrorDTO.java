@@ -1,6 +1,7 @@
 package dev.nerdysoft_tech_task.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,6 +10,7 @@ import java.util.Set;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class ErrorDTO {
     private LocalDateTime timestamp;
     private int status;
@@ -16,8 +18,15 @@ public class ErrorDTO {
     private String path;
     private Set<ErrorDetail> details;
 
+    /**
+     * Id of the trace of the failed request, absent when tracing is off.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String traceId;
+
     @Data
     @Builder
+    @AllArgsConstructor
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class ErrorDetail {
         private String value;
@@ -0,0 +1,22 @@
+package dev.nerdysoft_tech_task.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+
+import java.io.Serializable;
+
+@Builder
+public record LoanDTO(
+
+        Long id,
+        Long memberId,
+        Long bookId,
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        String borrowedAt,
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        String dueAt
+
+) implements Serializable {
+}
@@ -0,0 +1,19 @@
+package dev.nerdysoft_tech_task.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.io.Serializable;
+
+public record StockTransferDTO(
+
+        Long fromBranchId,
+
+        Long toBranchId,
+
+        @NotNull(message = "Can't be null")
+        @Positive(message = "Should be positive value")
+        Integer amount
+
+) implements Serializable {
+}
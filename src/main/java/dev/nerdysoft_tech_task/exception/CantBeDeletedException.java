@@ -2,6 +2,6 @@ package dev.nerdysoft_tech_task.exception;
 
 public class CantBeDeletedException extends RuntimeException {
     public CantBeDeletedException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package dev.nerdysoft_tech_task.exception;
+
+public class CantBeTransferredException extends RuntimeException {
+    public CantBeTransferredException(String message) {
+        super(message, null, false, false);
+    }
+}
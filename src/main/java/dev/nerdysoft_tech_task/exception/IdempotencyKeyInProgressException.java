@@ -0,0 +1,7 @@
+package dev.nerdysoft_tech_task.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.nerdysoft_tech_task.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message, null, false, false);
+    }
+}
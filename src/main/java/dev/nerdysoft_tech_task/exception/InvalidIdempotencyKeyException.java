@@ -0,0 +1,7 @@
+package dev.nerdysoft_tech_task.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message, null, false, false);
+    }
+}
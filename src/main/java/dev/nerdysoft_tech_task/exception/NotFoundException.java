@@ -2,6 +2,6 @@ package dev.nerdysoft_tech_task.exception;
 
 public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
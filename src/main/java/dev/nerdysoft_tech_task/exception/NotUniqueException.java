@@ -2,6 +2,6 @@ package dev.nerdysoft_tech_task.exception;
 
 public class NotUniqueException extends RuntimeException {
     public NotUniqueException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package dev.nerdysoft_tech_task.exception;
+
+public class UnsupportedSortException extends RuntimeException {
+    public UnsupportedSortException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,342 @@
+package dev.nerdysoft_tech_task.idempotency;
+
+import dev.nerdysoft_tech_task.exception.IdempotencyKeyInProgressException;
+import dev.nerdysoft_tech_task.exception.IdempotencyKeyMismatchException;
+import dev.nerdysoft_tech_task.exception.InvalidIdempotencyKeyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POST, PUT, PATCH and DELETE requests with an {@code Idempotency-Key}
+ * header safe to retry: a successful response is stored under the key and a
+ * retry gets it back with {@code Idempotent-Replayed: true}, without running
+ * the request again. Requests without the header are not touched.
+ * <p>
+ * The request runs in one transaction that first claims the key in the
+ * database and ends with storing the response, so the response is stored
+ * if and only if the changes are committed. Error responses roll back and are
+ * not stored, so a retry runs again. A retry arriving while the first request
+ * is still running waits up to {@code inFlightWait} for its response, on the
+ * same instance in memory and on another instance on the row lock of the key
+ * (with {@code lock_timeout}), then it gets 409. When the first request fails,
+ * a retry waiting on the same instance runs the request itself.
+ * <p>
+ * A key reused with a different method, path or body is rejected with 422.
+ */
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private static final String IN_PROGRESS_MESSAGE =
+            "Request with this " + KEY_HEADER + " is still being processed, retry later";
+
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private record Outcome(
+            IdempotentResponse response,
+            boolean replayed
+    ) {
+        boolean isStored() {
+            return replayed || HttpStatus.valueOf(response.status()).is2xxSuccessful();
+        }
+    }
+
+    private final IdempotencyStore store;
+    private final PlatformTransactionManager transactionManager;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Duration inFlightWait;
+
+    /**
+     * Completed with the stored response, or with {@code null} when the
+     * request failed and its waiters have to run it again.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(
+            HttpServletRequest request
+    ) {
+        return request.getHeader(KEY_HEADER) == null || !METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+        try {
+            checkKey(key);
+            byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+            String fingerprint = fingerprint(request, body);
+
+            IdempotentResponse cached = store.findCached(key);
+            if (cached != null) {
+                replay(cached, fingerprint, response);
+                return;
+            }
+
+            CompletableFuture<IdempotentResponse> own = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running;
+            while ((running = inFlight.putIfAbsent(key, own)) != null) {
+                IdempotentResponse stored = await(running);
+                if (stored != null) {
+                    replay(stored, fingerprint, response);
+                    return;
+                }
+            }
+
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            Outcome outcome;
+            try {
+                outcome = execute(key, fingerprint, new CachedBodyRequest(request, body), responseWrapper, filterChain);
+            } catch (Throwable e) {
+                inFlight.remove(key, own);
+                own.completeExceptionally(e);
+                throw e;
+            }
+            // removed first, so a waiter running the request again can take the key
+            inFlight.remove(key, own);
+            own.complete(outcome.isStored() ? outcome.response() : null);
+
+            if (outcome.replayed()) {
+                replay(outcome.response(), fingerprint, response);
+            } else {
+                responseWrapper.copyBodyToResponse();
+            }
+        } catch (InvalidIdempotencyKeyException | IdempotencyKeyMismatchException | IdempotencyKeyInProgressException e) {
+            exceptionResolver.resolveException(request, response, null, e);
+        }
+    }
+
+    private static void checkKey(
+            String key
+    ) {
+        if (!StringUtils.hasText(key) || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    KEY_HEADER + " must have from 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private Outcome execute(
+            String key,
+            String fingerprint,
+            HttpServletRequest request,
+            ContentCachingResponseWrapper response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            IdempotentResponse stored = claim(key, fingerprint);
+            if (stored != null) {
+                transactionManager.rollback(transaction);
+                return new Outcome(stored, true);
+            }
+
+            filterChain.doFilter(request, response);
+
+            IdempotentResponse own = store.responseOf(
+                    fingerprint,
+                    response.getStatus(),
+                    response.getContentType(),
+                    response.getContentAsByteArray());
+            if (!HttpStatus.valueOf(own.status()).is2xxSuccessful()) {
+                transactionManager.rollback(transaction);
+                return new Outcome(own, false);
+            }
+
+            store.save(key, own);
+            transactionManager.commit(transaction);
+            store.cache(key, own);
+            return new Outcome(own, false);
+        } catch (Throwable e) {
+            if (!transaction.isCompleted()) {
+                transactionManager.rollback(transaction);
+            }
+            throw e;
+        }
+    }
+
+    private IdempotentResponse claim(
+            String key,
+            String fingerprint
+    ) {
+        try {
+            return store.claim(key, fingerprint, inFlightWait);
+        } catch (PessimisticLockingFailureException e) {
+            if (isLockNotAvailable(e)) {
+                throw new IdempotencyKeyInProgressException(IN_PROGRESS_MESSAGE);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isLockNotAvailable(
+            Throwable e
+    ) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && LOCK_NOT_AVAILABLE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IdempotentResponse await(
+            CompletableFuture<IdempotentResponse> running
+    ) {
+        try {
+            return running.get(inFlightWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            throw new IdempotencyKeyInProgressException(IN_PROGRESS_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(IN_PROGRESS_MESSAGE);
+        }
+    }
+
+    private static void replay(
+            IdempotentResponse stored,
+            String fingerprint,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException(KEY_HEADER + " was already used for a different request");
+        }
+        if (stored.status() == 0) {
+            throw new IdempotencyKeyInProgressException(IN_PROGRESS_MESSAGE);
+        }
+
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    /**
+     * SHA-256 of method, path with query and body, so the key can't be reused
+     * for another request, e.g. a borrow of another book.
+     */
+    private static String fingerprint(
+            HttpServletRequest request,
+            byte[] body
+    ) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The body is read once for the fingerprint and served again to the controller.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(
+                HttpServletRequest request,
+                byte[] body
+        ) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(
+                    getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
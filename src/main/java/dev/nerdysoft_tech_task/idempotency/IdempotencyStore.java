@@ -0,0 +1,125 @@
+package dev.nerdysoft_tech_task.idempotency;
+
+import dev.nerdysoft_tech_task.model.IdempotencyRecord;
+import dev.nerdysoft_tech_task.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stored responses of idempotent requests, kept for {@code ttl}.
+ * <p>
+ * The {@code idempotency_keys} table is the source of truth and is shared by
+ * every instance. Responses are also kept in memory, so a retry that reaches
+ * the same instance is answered without the database; at most {@code capacity}
+ * of them, newer responses over the limit are only in the table.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final int capacity;
+
+    private final ConcurrentHashMap<String, IdempotentResponse> responses = new ConcurrentHashMap<>();
+
+    IdempotentResponse findCached(
+            String key
+    ) {
+        IdempotentResponse response = responses.get(key);
+        if (response == null || response.isExpired(LocalDateTime.now())) {
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Must run in the transaction of the request. Returns {@code null} when
+     * the key is now held by this request, otherwise the stored response.
+     * <p>
+     * Waits at most {@code lockTimeout} for a request holding the key on
+     * another instance, then PostgreSQL fails the claim with lock_not_available.
+     * The timeout is restored afterwards, so it doesn't apply to the request itself.
+     */
+    IdempotentResponse claim(
+            String key,
+            String fingerprint,
+            Duration lockTimeout
+    ) {
+        String previousLockTimeout = repository.findLockTimeout();
+        // 0 would disable the timeout
+        repository.setLockTimeout(Math.max(lockTimeout.toMillis(), 1) + "ms");
+
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = repository.claim(key, fingerprint, now.plus(ttl), now);
+        repository.setLockTimeout(previousLockTimeout);
+        if (claimed > 0) {
+            return null;
+        }
+
+        IdempotencyRecord record = repository
+                .findById(key)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key " + key + " is neither free nor stored"));
+
+        return new IdempotentResponse(
+                record.getFingerprint(),
+                record.getStatus() != null ? record.getStatus() : 0,
+                record.getContentType(),
+                record.getBody(),
+                record.getExpiresAt());
+    }
+
+    IdempotentResponse responseOf(
+            String fingerprint,
+            int status,
+            String contentType,
+            byte[] body
+    ) {
+        return new IdempotentResponse(fingerprint, status, contentType, body, LocalDateTime.now().plus(ttl));
+    }
+
+    /**
+     * Must run in the transaction that claimed the key.
+     */
+    void save(
+            String key,
+            IdempotentResponse response
+    ) {
+        repository.complete(key, response.status(), response.contentType(), response.body());
+    }
+
+    /**
+     * Called after the transaction of the request has committed.
+     */
+    void cache(
+            String key,
+            IdempotentResponse response
+    ) {
+        if (responses.size() >= capacity) {
+            evictExpiredResponses();
+        }
+        if (responses.size() < capacity) {
+            responses.put(key, response);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${custom.idempotency.evictionDelay:PT1M}")
+    void evictExpired() {
+        evictExpiredResponses();
+
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private void evictExpiredResponses() {
+        LocalDateTime now = LocalDateTime.now();
+        responses.values().removeIf(response -> response.isExpired(now));
+    }
+}
@@ -0,0 +1,21 @@
+package dev.nerdysoft_tech_task.idempotency;
+
+import java.time.LocalDateTime;
+
+/**
+ * What is replayed for a retried request: status, content type and body of the
+ * first response, and the fingerprint of the request that produced it.
+ */
+record IdempotentResponse(
+        String fingerprint,
+        int status,
+        String contentType,
+        byte[] body,
+        LocalDateTime expiresAt
+) {
+    boolean isExpired(
+            LocalDateTime now
+    ) {
+        return expiresAt.isBefore(now);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.nerdysoft_tech_task.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+@Name("dev.nerdysoft_tech_task.BookCreate")
+@Label("Book Create")
+@Category({"NerdySoft", "Library"})
+@Description("New book or one more copy of an existing book, without the transaction commit")
+@StackTrace(false)
+@Setter
+public class BookCreateEvent extends Event {
+
+    @Label("Book Id")
+    private long bookId;
+
+    @Label("New Book")
+    @Description("False when a copy was added to an existing book")
+    private boolean newBook;
+
+    @Label("Sharded")
+    private boolean sharded;
+}
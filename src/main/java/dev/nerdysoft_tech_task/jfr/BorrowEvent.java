@@ -0,0 +1,29 @@
+package dev.nerdysoft_tech_task.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+@Name("dev.nerdysoft_tech_task.Borrow")
+@Label("Borrow or Return")
+@Category({"NerdySoft", "Library"})
+@Description("Borrow or return of a book by a member, without the transaction commit")
+@StackTrace(false)
+@Setter
+public class BorrowEvent extends Event {
+
+    @Label("Member Id")
+    private long memberId;
+
+    @Label("Book Id")
+    private long bookId;
+
+    @Label("Branch Id")
+    @Description("0 for the central stock")
+    private long branchId;
+
+    @Label("Returned")
+    private boolean returned;
+
+    @Label("Failed")
+    private boolean failed;
+}
@@ -0,0 +1,22 @@
+package dev.nerdysoft_tech_task.jfr;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+@Name("dev.nerdysoft_tech_task.BorrowedTitles")
+@Label("Borrowed Titles Aggregation")
+@Category({"NerdySoft", "Library"})
+@Description("One execution of the borrowed titles aggregation, calls collapsed into it are not recorded")
+@StackTrace(false)
+@Setter
+public class BorrowedTitlesEvent extends Event {
+
+    @Label("Books Loaded")
+    private int booksLoaded;
+
+    @Label("Titles")
+    private int titles;
+
+    @Label("Show Amount Borrowed")
+    private boolean showAmountBorrowed;
+}
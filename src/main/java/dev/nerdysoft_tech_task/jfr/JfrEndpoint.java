@@ -0,0 +1,193 @@
+package dev.nerdysoft_tech_task.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Starts, lists, dumps and stops Flight Recorder recordings of the running
+ * application at {@code /actuator/jfr}, so latency spikes can be looked at in
+ * JDK Mission Control without attaching a profiler to the host.
+ * <ul>
+ *     <li>{@code POST /actuator/jfr} with {@code {"settings": "profile", "duration": "PT2M"}} starts a recording</li>
+ *     <li>{@code GET /actuator/jfr/{id}} dumps what it has recorded so far as a {@code .jfr} file</li>
+ *     <li>{@code DELETE /actuator/jfr/{id}} stops and closes it</li>
+ * </ul>
+ * Not exposed by default: dumps contain system properties and environment
+ * variables, see the {@code profiling} profile. On-demand recordings keep at
+ * most {@code maxSize} on disk and, unless told otherwise, the last {@code defaultMaxAge}.
+ */
+@Slf4j
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    static final String CONTINUOUS_RECORDING = "continuous";
+
+    private final Path directory;
+    private final Duration defaultMaxAge;
+    private final long maxSize;
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return FlightRecorder
+                .getFlightRecorder()
+                .getRecordings()
+                .stream()
+                .map(RecordingDescriptor::of)
+                .toList();
+    }
+
+    /**
+     * @param settings {@code default} (about 1% overhead) or {@code profile} (about 2%, more samples)
+     * @param duration stops the recording by itself after it, unlimited if absent
+     * @param maxAge   keeps only the last part of a long recording on disk, {@code defaultMaxAge} if absent
+     */
+    @WriteOperation
+    public RecordingDescriptor start(
+            @Nullable String name,
+            @Nullable String settings,
+            @Nullable Duration duration,
+            @Nullable Duration maxAge
+    ) {
+        Configuration configuration = findConfiguration(settings != null ? settings : "default");
+
+        Recording recording = new Recording(configuration);
+        recording.setName(name != null ? name : "on-demand");
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setMaxAge(maxAge != null ? maxAge : defaultMaxAge);
+        recording.setMaxSize(maxSize);
+        recording.start();
+
+        log.info("Started JFR recording {} '{}' with {} settings", recording.getId(), recording.getName(), configuration.getName());
+        return RecordingDescriptor.of(recording);
+    }
+
+    /**
+     * Continuous recording started at boot when {@code custom.jfr.continuous.enabled}
+     * is set; only the last {@code maxAge} is kept, so it can run forever.
+     */
+    public void startContinuous(
+            String settings,
+            Duration maxAge,
+            long maxSize
+    ) {
+        Recording recording = new Recording(findConfiguration(settings));
+        recording.setName(CONTINUOUS_RECORDING);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize);
+        recording.start();
+
+        log.info("Started continuous JFR recording {} keeping the last {}", recording.getId(), maxAge);
+    }
+
+    /**
+     * Returns {@code null} (404) for unknown ids and recordings that haven't started yet.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    @SneakyThrows
+    public Resource dump(
+            @Selector long id
+    ) {
+        Optional<Recording> recording = find(id)
+                .filter(found -> found.getState() == RecordingState.RUNNING || found.getState() == RecordingState.STOPPED);
+        if (recording.isEmpty()) {
+            return null;
+        }
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve("recording-" + id + ".jfr");
+        recording.get().dump(file);
+        return new FileSystemResource(file);
+    }
+
+    @DeleteOperation
+    public RecordingDescriptor stop(
+            @Selector long id
+    ) {
+        return find(id)
+                .map(recording -> {
+                    if (recording.getState() == RecordingState.RUNNING) {
+                        recording.stop();
+                    }
+                    RecordingDescriptor descriptor = RecordingDescriptor.of(recording);
+                    recording.close();
+                    log.info("Closed JFR recording {} '{}'", id, recording.getName());
+                    return descriptor;
+                })
+                .orElse(null);
+    }
+
+    private static Configuration findConfiguration(
+            String settings
+    ) {
+        List<Configuration> configurations = Configuration.getConfigurations();
+        return configurations
+                .stream()
+                .filter(configuration -> configuration.getName().equals(settings))
+                .findFirst()
+                .orElseThrow(() -> new InvalidEndpointRequestException(
+                        "Unknown JFR settings '" + settings + "'",
+                        "Unknown settings, expected one of " + configurations
+                                .stream()
+                                .map(Configuration::getName)
+                                .toList()));
+    }
+
+    private static Optional<Recording> find(
+            long id
+    ) {
+        return FlightRecorder
+                .getFlightRecorder()
+                .getRecordings()
+                .stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    public record RecordingDescriptor(
+            long id,
+            String name,
+            RecordingState state,
+            Instant startTime,
+            Duration duration,
+            Duration maxAge,
+            long size
+    ) {
+
+        static RecordingDescriptor of(
+                Recording recording
+        ) {
+            return new RecordingDescriptor(
+                    recording.getId(),
+                    recording.getName(),
+                    recording.getState(),
+                    recording.getStartTime(),
+                    recording.getDuration(),
+                    recording.getMaxAge(),
+                    recording.getSize());
+        }
+    }
+}
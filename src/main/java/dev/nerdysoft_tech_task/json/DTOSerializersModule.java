@@ -0,0 +1,210 @@
+package dev.nerdysoft_tech_task.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Streaming serializers for the DTOs returned by list endpoints and for the
+ * page envelope, registered in Spring's {@code ObjectMapper} as a module bean.
+ * They write the same JSON as Jackson's reflective serializers, field names
+ * are pre-encoded. A new field in one of these DTOs has to be added here too.
+ * <p>
+ * Pages are written as Spring Data's {@link PagedModel} in every format,
+ * not only in JSON where {@code serialization-mode: via-dto} applies.
+ */
+@Component
+public class DTOSerializersModule extends SimpleModule {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString AUTHOR = new SerializedString("author");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString MEMBERSHIP_DATE = new SerializedString("membershipDate");
+    private static final SerializableString AMOUNT_BORROWED = new SerializedString("amountBorrowed");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    public DTOSerializersModule() {
+        super("DTOSerializersModule");
+
+        addSerializer(BookDTO.class, new BookDTOSerializer());
+        addSerializer(MemberDTO.class, new MemberDTOSerializer());
+        addSerializer(BorrowedBookDTO.class, new BorrowedBookDTOSerializer());
+        addSerializer(PagedModel.class, new PagedModelSerializer());
+        addSerializer(Page.class, new PageSerializer());
+    }
+
+    static class BookDTOSerializer extends StdSerializer<BookDTO> {
+
+        BookDTOSerializer() {
+            super(BookDTO.class);
+        }
+
+        @Override
+        public void serialize(
+                BookDTO dto,
+                JsonGenerator gen,
+                SerializerProvider provider
+        ) throws IOException {
+            gen.writeStartObject(dto);
+            writeNumber(gen, ID, dto.id());
+            writeString(gen, TITLE, dto.title());
+            writeString(gen, AUTHOR, dto.author());
+            writeNumber(gen, AMOUNT, dto.amount());
+            gen.writeEndObject();
+        }
+    }
+
+    static class MemberDTOSerializer extends StdSerializer<MemberDTO> {
+
+        MemberDTOSerializer() {
+            super(MemberDTO.class);
+        }
+
+        @Override
+        public void serialize(
+                MemberDTO dto,
+                JsonGenerator gen,
+                SerializerProvider provider
+        ) throws IOException {
+            gen.writeStartObject(dto);
+            writeNumber(gen, ID, dto.id());
+            writeString(gen, NAME, dto.name());
+            writeString(gen, MEMBERSHIP_DATE, dto.membershipDate());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Keeps {@code @JsonInclude(NON_NULL)} of {@link BorrowedBookDTO}.
+     */
+    static class BorrowedBookDTOSerializer extends StdSerializer<BorrowedBookDTO> {
+
+        BorrowedBookDTOSerializer() {
+            super(BorrowedBookDTO.class);
+        }
+
+        @Override
+        public void serialize(
+                BorrowedBookDTO dto,
+                JsonGenerator gen,
+                SerializerProvider provider
+        ) throws IOException {
+            gen.writeStartObject(dto);
+            if (dto.title() != null) {
+                writeString(gen, TITLE, dto.title());
+            }
+            if (dto.amountBorrowed() != null) {
+                writeNumber(gen, AMOUNT_BORROWED, dto.amountBorrowed());
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * {@code {"content": [...], "page": {"size", "number", "totalElements", "totalPages"}}}
+     */
+    @SuppressWarnings("rawtypes")
+    static class PagedModelSerializer extends StdSerializer<PagedModel> {
+
+        PagedModelSerializer() {
+            super(PagedModel.class);
+        }
+
+        @Override
+        public void serialize(
+                PagedModel model,
+                JsonGenerator gen,
+                SerializerProvider provider
+        ) throws IOException {
+            gen.writeStartObject(model);
+
+            gen.writeFieldName(CONTENT);
+            gen.writeStartArray();
+            for (Object element : model.getContent()) {
+                provider.defaultSerializeValue(element, gen);
+            }
+            gen.writeEndArray();
+
+            PagedModel.PageMetadata metadata = model.getMetadata();
+            gen.writeFieldName(PAGE);
+            if (metadata == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartObject(metadata);
+                gen.writeFieldName(SIZE);
+                gen.writeNumber(metadata.size());
+                gen.writeFieldName(NUMBER);
+                gen.writeNumber(metadata.number());
+                gen.writeFieldName(TOTAL_ELEMENTS);
+                gen.writeNumber(metadata.totalElements());
+                gen.writeFieldName(TOTAL_PAGES);
+                gen.writeNumber(metadata.totalPages());
+                gen.writeEndObject();
+            }
+
+            gen.writeEndObject();
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    static class PageSerializer extends StdSerializer<Page> {
+
+        private final PagedModelSerializer pagedModelSerializer = new PagedModelSerializer();
+
+        PageSerializer() {
+            super(Page.class);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void serialize(
+                Page page,
+                JsonGenerator gen,
+                SerializerProvider provider
+        ) throws IOException {
+            pagedModelSerializer.serialize(new PagedModel<>(page), gen, provider);
+        }
+    }
+
+    private static void writeNumber(
+            JsonGenerator gen,
+            SerializableString name,
+            Number value
+    ) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof Long longValue) {
+            gen.writeNumber(longValue);
+        } else {
+            gen.writeNumber(value.intValue());
+        }
+    }
+
+    private static void writeString(
+            JsonGenerator gen,
+            SerializableString name,
+            String value
+    ) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+}
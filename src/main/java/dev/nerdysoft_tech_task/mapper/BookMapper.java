@@ -3,12 +3,12 @@ package dev.nerdysoft_tech_task.mapper;
 import dev.nerdysoft_tech_task.dto.BookDTO;
 import dev.nerdysoft_tech_task.model.Book;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface BookMapper {
 
-    Book toEntity(BookDTO dto);
-
+    @Mapping(target = "amount", source = "availableAmount")
     BookDTO toDTO(Book book);
 
 }
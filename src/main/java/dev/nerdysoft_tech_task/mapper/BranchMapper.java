@@ -0,0 +1,19 @@
+package dev.nerdysoft_tech_task.mapper;
+
+import dev.nerdysoft_tech_task.dto.BranchDTO;
+import dev.nerdysoft_tech_task.dto.BranchStockDTO;
+import dev.nerdysoft_tech_task.model.Branch;
+import dev.nerdysoft_tech_task.model.BranchStock;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface BranchMapper {
+
+    BranchDTO toDTO(Branch branch);
+
+    @Mapping(target = "branchId", source = "branch.id")
+    @Mapping(target = "branchName", source = "branch.name")
+    BranchStockDTO toDTO(BranchStock branchStock);
+
+}
@@ -0,0 +1,15 @@
+package dev.nerdysoft_tech_task.mapper;
+
+import dev.nerdysoft_tech_task.dto.LoanDTO;
+import dev.nerdysoft_tech_task.model.Loan;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface LoanMapper {
+
+    @Mapping(target = "memberId", source = "member.id")
+    @Mapping(target = "bookId", source = "book.id")
+    LoanDTO toDTO(Loan loan);
+
+}
@@ -2,6 +2,7 @@ package dev.nerdysoft_tech_task.mapper;
 
 import dev.nerdysoft_tech_task.dto.MemberDTO;
 import dev.nerdysoft_tech_task.model.Member;
+import dev.nerdysoft_tech_task.repository.MemberRow;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
@@ -9,4 +10,6 @@ public interface MemberMapper {
 
     MemberDTO toDTO(Member member);
 
+    MemberDTO toDTO(MemberRow row);
+
 }
\ No newline at end of file
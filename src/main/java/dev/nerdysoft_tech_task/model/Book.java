@@ -2,12 +2,20 @@ package dev.nerdysoft_tech_task.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name = "books")
+@Table(
+        name = "books",
+        indexes = {
+                @Index(name = "idx_books_title_author", columnList = "title, author"),
+                @Index(name = "idx_books_author", columnList = "author")
+        }
+)
 @Getter
 @Setter
 @ToString
@@ -30,9 +38,29 @@ public class Book {
     @Column(name = "amount", nullable = false)
     private Integer amount;
 
-    @ManyToMany(mappedBy = "borrowedBooks")
+    @OneToMany(mappedBy = "book")
     @ToString.Exclude
-    private Set<Member> borrowingMembers;
+    private Set<Loan> loans;
+
+    /**
+     * Whether part of the stock is spread over {@link StockSlot} rows.
+     */
+    @Column(name = "sharded", nullable = false)
+    @ColumnDefault("false")
+    private boolean sharded;
+
+    @Formula("(case when sharded then (select coalesce(sum(s.amount), 0) from stock_slots s where s.book_id = id) else 0 end)")
+    private Integer slotsAmount;
+
+    /**
+     * Central stock of the book, i.e. {@code amount} plus copies kept in stock slots.
+     */
+    public Integer getAvailableAmount() {
+        if (!sharded || slotsAmount == null) {
+            return amount;
+        }
+        return amount + slotsAmount;
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,56 @@
+package dev.nerdysoft_tech_task.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Objects;
+
+@Entity
+@Table(
+        name = "branch_stocks",
+        indexes = {
+                @Index(name = "uk_branch_stocks_book_id_branch_id", columnList = "book_id, branch_id", unique = true),
+                @Index(name = "idx_branch_stocks_branch_id", columnList = "branch_id")
+        }
+)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BranchStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "branch_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    private Branch branch;
+
+    @Column(name = "amount", nullable = false)
+    private Integer amount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BranchStock branchStock = (BranchStock) o;
+        return Objects.equals(id, branchStock.id) && Objects.equals(amount, branchStock.amount);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(id);
+        result = 31 * result + Objects.hashCode(amount);
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.nerdysoft_tech_task.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(
+        name = "loans",
+        indexes = {
+                @Index(name = "uk_loans_member_id_book_id", columnList = "member_id, book_id", unique = true),
+                @Index(name = "idx_loans_book_id", columnList = "book_id"),
+                @Index(name = "idx_loans_overdue_due_at", columnList = "overdue, due_at")
+        }
+)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Loan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    private Member member;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    private Book book;
+
+    @Column(name = "borrowed_at", nullable = false, updatable = false)
+    private LocalDateTime borrowedAt;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "overdue", nullable = false)
+    private boolean overdue;
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Loan loan = (Loan) o;
+        return Objects.equals(id, loan.id) && Objects.equals(borrowedAt, loan.borrowedAt) && Objects.equals(dueAt, loan.dueAt);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(id);
+        result = 31 * result + Objects.hashCode(borrowedAt);
+        result = 31 * result + Objects.hashCode(dueAt);
+        return result;
+    }
+}
@@ -5,10 +5,14 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.Set;
 
 @Entity
-@Table(name = "members")
+@Table(
+        name = "members",
+        indexes = {
+                @Index(name = "idx_members_name", columnList = "name")
+        }
+)
 @Getter
 @Setter
 @ToString
@@ -28,15 +32,6 @@ public class Member {
     @Column(name = "membership_date", nullable = false)
     private LocalDateTime membershipDate;
 
-    @ManyToMany(cascade = CascadeType.MERGE)
-    @JoinTable(
-            name = "members_borrowed_books",
-            joinColumns = @JoinColumn(name = "member_id"),
-            inverseJoinColumns = @JoinColumn(name = "book_id")
-    )
-    @ToString.Exclude
-    private Set<Book> borrowedBooks;
-
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -0,0 +1,58 @@
+package dev.nerdysoft_tech_task.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Objects;
+
+/**
+ * One of several counters that together hold the central stock of a hot book,
+ * so concurrent borrows lock different rows instead of the single books row.
+ */
+@Entity
+@Table(
+        name = "stock_slots",
+        indexes = {
+                @Index(name = "uk_stock_slots_book_id_slot", columnList = "book_id, slot", unique = true)
+        }
+)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "book_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    private Book book;
+
+    @Column(name = "slot", nullable = false, updatable = false)
+    private Integer slot;
+
+    @Column(name = "amount", nullable = false)
+    private Integer amount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StockSlot stockSlot = (StockSlot) o;
+        return Objects.equals(id, stockSlot.id) && Objects.equals(slot, stockSlot.slot) && Objects.equals(amount, stockSlot.amount);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(id);
+        result = 31 * result + Objects.hashCode(slot);
+        result = 31 * result + Objects.hashCode(amount);
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package dev.nerdysoft_tech_task.ratelimit;
+
+import dev.nerdysoft_tech_task.controller.BookController;
+import dev.nerdysoft_tech_task.controller.MemberController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Admission control in front of {@link MemberController} and {@link BookController}.
+ * A request takes a token from the bucket of its member (if the path has one),
+ * of its client IP and of its endpoint class, e.g. {@code MemberController.write};
+ * a request rejected by one bucket spends no token from the others.
+ * Rejected requests end up in {@code RestExceptionHandler} as 429.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Set<Class<?>> LIMITED_CONTROLLERS = Set.of(
+            MemberController.class,
+            BookController.class
+    );
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler
+    ) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !LIMITED_CONTROLLERS.contains(handlerMethod.getBeanType())) {
+            return true;
+        }
+
+        String endpointClass = handlerMethod.getBeanType().getSimpleName() + '.' +
+                (HttpMethod.GET.matches(request.getMethod()) ? "read" : "write");
+
+        rateLimiter.acquire(findMemberId(request, handlerMethod), request.getRemoteAddr(), endpointClass);
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String findMemberId(
+            HttpServletRequest request,
+            HandlerMethod handlerMethod
+    ) {
+        if (handlerMethod.getBeanType() != MemberController.class) {
+            return null;
+        }
+
+        Map<String, String> pathVariables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables == null) {
+            return null;
+        }
+
+        return pathVariables.getOrDefault("member_id", pathVariables.get("id"));
+    }
+}
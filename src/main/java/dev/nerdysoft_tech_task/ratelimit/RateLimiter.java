@@ -0,0 +1,128 @@
+package dev.nerdysoft_tech_task.ratelimit;
+
+import dev.nerdysoft_tech_task.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link TokenBucket} per member id, per client IP and per endpoint class.
+ * Buckets are created lazily and dropped by {@link #evictFullBuckets()} once they refill.
+ * <p>
+ * Buckets hold {@link System#nanoTime()} values, which mean nothing in another
+ * process, so they are dropped when the context stops, including a CRaC checkpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimiter implements SmartLifecycle {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    @Value("${custom.rateLimit.memberCapacity:20}")
+    private Integer memberCapacity;
+
+    @Value("${custom.rateLimit.memberRefillPerSecond:10}")
+    private Integer memberRefillPerSecond;
+
+    @Value("${custom.rateLimit.ipCapacity:100}")
+    private Integer ipCapacity;
+
+    @Value("${custom.rateLimit.ipRefillPerSecond:50}")
+    private Integer ipRefillPerSecond;
+
+    @Value("${custom.rateLimit.endpointCapacity:2000}")
+    private Integer endpointCapacity;
+
+    @Value("${custom.rateLimit.endpointRefillPerSecond:1000}")
+    private Integer endpointRefillPerSecond;
+
+    /**
+     * Takes a token from the member (if not {@code null}), IP and endpoint buckets,
+     * all or none: when a later bucket rejects the request, the tokens already
+     * taken from the earlier ones are given back.
+     */
+    public void acquire(
+            String memberId,
+            String ip,
+            String endpointClass
+    ) {
+        long now = System.nanoTime();
+        TokenBucket memberBucket = null;
+        TokenBucket ipBucket = null;
+        try {
+            if (memberId != null) {
+                memberBucket = acquire("member", memberId, endpointClass, memberCapacity, memberRefillPerSecond, now);
+            }
+            ipBucket = acquire("ip", ip, endpointClass, ipCapacity, ipRefillPerSecond, now);
+            acquire("endpoint", endpointClass, endpointClass, endpointCapacity, endpointRefillPerSecond, now);
+        } catch (TooManyRequestsException e) {
+            if (memberBucket != null) {
+                memberBucket.release();
+            }
+            if (ipBucket != null) {
+                ipBucket.release();
+            }
+            throw e;
+        }
+    }
+
+    private TokenBucket acquire(
+            String scope,
+            String key,
+            String endpointClass,
+            int capacity,
+            int refillPerSecond,
+            long now
+    ) {
+        TokenBucket bucket = buckets
+                .computeIfAbsent(scope + ':' + key, k -> new TokenBucket(capacity, refillPerSecond, now));
+        long waitNanos = bucket.tryAcquire(now);
+
+        if (waitNanos > 0) {
+            Counter
+                    .builder("ratelimit.throttled")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("scope", scope)
+                    .tag("endpoint", endpointClass)
+                    .register(meterRegistry)
+                    .increment();
+
+            throw new TooManyRequestsException(
+                    "Too many requests per " + scope + ", try again later",
+                    Duration.ofNanos(waitNanos));
+        }
+        return bucket;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        buckets.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${custom.rateLimit.evictionDelay:PT1M}")
+    void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
@@ -0,0 +1,65 @@
+package dev.nerdysoft_tech_task.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket of {@code capacity} tokens refilled at {@code refillPerSecond}.
+ * <p>
+ * Instead of a token count the bucket keeps only the time at which it will
+ * be full again (generic cell rate algorithm), so taking a token is one CAS
+ * on a single {@code long} and never allocates.
+ */
+class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(
+            int capacity,
+            int refillPerSecond,
+            long now
+    ) {
+        this.nanosPerToken = NANOS_PER_SECOND / refillPerSecond;
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanos to wait for the next token
+     */
+    long tryAcquire(
+            long now
+    ) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long overflow = next - now - burstNanos;
+
+            if (overflow > 0) {
+                return overflow;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire(long)}.
+     */
+    void release() {
+        fullAt.addAndGet(-nanosPerToken);
+    }
+
+    /**
+     * Bucket that is full again carries no state and can be dropped.
+     */
+    boolean isFull(
+            long now
+    ) {
+        return fullAt.get() <= now;
+    }
+}
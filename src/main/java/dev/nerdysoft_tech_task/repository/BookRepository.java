@@ -1,14 +1,41 @@
 package dev.nerdysoft_tech_task.repository;
 
 import dev.nerdysoft_tech_task.model.Book;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface BookRepository extends
-        JpaRepository<Book, Long>
+        JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom
 {
     Optional<Book> findByTitleAndAuthor(String title, String author);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.amount = b.amount - :amount where b.id = :id and b.amount >= :amount")
+    int decreaseAmount(@Param("id") Long id, @Param("amount") int amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.amount = b.amount + :amount where b.id = :id")
+    int increaseAmount(@Param("id") Long id, @Param("amount") int amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.amount = b.amount + :amount where b.id = :id and b.sharded = false")
+    int increaseUnshardedAmount(@Param("id") Long id, @Param("amount") int amount);
+
+    @Query("select coalesce(sum(b.amount), 0) from Book b")
+    long sumAmount();
 }
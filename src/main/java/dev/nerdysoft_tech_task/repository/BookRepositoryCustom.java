@@ -0,0 +1,15 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Read-only listing selected straight into DTOs, without managed entities.
+     */
+    Page<BookDTO> findAllAsDTO(Specification<Book> specification, Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    /**
+     * {@code slotsAmount} is 0 for books without stock slots, so the selected
+     * amount is the central stock of every book. The count query only runs
+     * when the page doesn't tell the total by itself.
+     */
+    @Override
+    public Page<BookDTO> findAllAsDTO(
+            Specification<Book> specification,
+            Pageable pageable
+    ) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<BookDTO> query = builder.createQuery(BookDTO.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(builder.construct(
+                BookDTO.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("author"),
+                builder.sum(root.<Integer>get("amount"), root.<Integer>get("slotsAmount"))));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        }
+
+        TypedQuery<BookDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<BookDTO> content = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(
+            Specification<Book> specification
+    ) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(builder.count(root));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,111 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
+import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.model.Loan;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filters for {@link BookRepository#findAllAsDTO(Specification, org.springframework.data.domain.Pageable)},
+ * kept next to the repository so the query plan tests run exactly what the services run.
+ */
+public final class BookSpecifications {
+
+    /**
+     * Properties backed by an index ({@code books_pkey}, {@code idx_books_title_author},
+     * {@code idx_books_author}), so sorting a page of a large table doesn't sort the whole table.
+     */
+    public static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "title", "author");
+
+    private static final String BYTE_ORDER = "\"C\"";
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matches(
+            BookFilterDTO filter
+    ) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (StringUtils.hasText(filter.author())) {
+                predicates.add(builder.equal(root.get("author"), filter.author()));
+            }
+
+            if (StringUtils.hasText(filter.titleStartsWith())) {
+                predicates.addAll(titleStartsWith(builder, root, filter.titleStartsWith()));
+            }
+
+            if (filter.available() != null) {
+                Predicate available = builder.or(
+                        builder.gt(root.get("amount"), 0),
+                        builder.gt(root.get("slotsAmount"), 0));
+                predicates.add(filter.available() ? available : builder.not(available));
+            }
+
+            if (filter.borrowed() != null) {
+                Subquery<Integer> loans = query.subquery(Integer.class);
+                Root<Loan> loan = loans.from(Loan.class);
+                loans.select(builder.literal(1))
+                        .where(builder.equal(loan.get("book"), root));
+                predicates.add(filter.borrowed() ? builder.exists(loans) : builder.not(builder.exists(loans)));
+            }
+
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * {@code like 'prefix%'} can use a btree index only under the C collation and
+     * only for a literal pattern, so the prefix is matched as a byte order range
+     * {@code [prefix, next prefix)} on {@code idx_books_title_prefix} instead.
+     * In UTF-8 byte order is code point order.
+     */
+    private static List<Predicate> titleStartsWith(
+            CriteriaBuilder builder,
+            Root<Book> root,
+            String prefix
+    ) {
+        Expression<String> title = ((HibernateCriteriaBuilder) builder).collate(root.get("title"), BYTE_ORDER);
+
+        String upperBound = nextPrefix(prefix);
+        if (upperBound == null) {
+            return List.of(builder.greaterThanOrEqualTo(title, prefix));
+        }
+        return List.of(
+                builder.greaterThanOrEqualTo(title, prefix),
+                builder.lessThan(title, upperBound));
+    }
+
+    /**
+     * Smallest string greater than every string starting with {@code prefix},
+     * {@code null} if there is none.
+     */
+    public static String nextPrefix(
+            String prefix
+    ) {
+        int[] codePoints = prefix.codePoints().toArray();
+        for (int i = codePoints.length - 1; i >= 0; i--) {
+            int next = codePoints[i] + 1;
+            if (next == Character.MIN_SURROGATE) {
+                next = Character.MAX_SURROGATE + 1;
+            }
+            if (next <= Character.MAX_CODE_POINT) {
+                codePoints[i] = next;
+                return new String(codePoints, 0, i + 1);
+            }
+        }
+        return null;
+    }
+}
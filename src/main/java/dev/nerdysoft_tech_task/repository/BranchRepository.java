@@ -0,0 +1,12 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.model.Branch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BranchRepository extends
+        JpaRepository<Branch, Long>
+{
+    boolean existsByName(String name);
+}
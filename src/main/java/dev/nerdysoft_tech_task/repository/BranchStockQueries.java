@@ -0,0 +1,22 @@
+package dev.nerdysoft_tech_task.repository;
+
+/**
+ * Native branch stock statements shared by {@link BranchStockRepository} and
+ * the R2DBC member service of the reactive profile.
+ */
+public final class BranchStockQueries {
+
+    /**
+     * Adds copies to the branch, inserting its row when it has none yet. One
+     * statement, so concurrent first returns to a branch don't both insert.
+     */
+    public static final String INCREASE_AMOUNT = """
+            insert into branch_stocks (book_id, branch_id, amount)
+            values (:bookId, :branchId, :amount)
+            on conflict (book_id, branch_id) do update
+            set amount = branch_stocks.amount + excluded.amount
+            """;
+
+    private BranchStockQueries() {
+    }
+}
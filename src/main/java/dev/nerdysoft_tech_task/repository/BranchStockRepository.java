@@ -0,0 +1,46 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.model.BranchStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BranchStockRepository extends
+        JpaRepository<BranchStock, Long>
+{
+    @Query("""
+            select s
+            from BranchStock s
+            join fetch s.branch
+            where s.book.id = :bookId
+            order by s.branch.id
+            """)
+    List<BranchStock> findAllByBookIdWithBranch(@Param("bookId") Long bookId);
+
+    @Query("select coalesce(sum(s.amount), 0) from BranchStock s where s.book.id = :bookId")
+    long sumAmountByBookId(@Param("bookId") Long bookId);
+
+    @Query("select coalesce(sum(s.amount), 0) from BranchStock s")
+    long sumAmount();
+
+    @Modifying
+    @Query("""
+            update BranchStock s
+            set s.amount = s.amount - :amount
+            where s.book.id = :bookId and s.branch.id = :branchId and s.amount >= :amount
+            """)
+    int decreaseAmount(@Param("bookId") Long bookId, @Param("branchId") Long branchId, @Param("amount") int amount);
+
+    @Modifying
+    @Query(value = BranchStockQueries.INCREASE_AMOUNT, nativeQuery = true)
+    int increaseAmount(@Param("bookId") Long bookId, @Param("branchId") Long branchId, @Param("amount") int amount);
+
+    @Modifying
+    @Query("delete from BranchStock s where s.book.id = :bookId")
+    int deleteAllByBookId(@Param("bookId") Long bookId);
+}
@@ -0,0 +1,68 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends
+        JpaRepository<IdempotencyRecord, String>
+{
+    /**
+     * Inserts an empty record for the key, or takes over an expired one.
+     * While another transaction holds the key this waits for it to finish,
+     * up to {@code lock_timeout}, so 0 means the key is taken by a committed request.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into idempotency_keys (idempotency_key, fingerprint, expires_at)
+            values (:key, :fingerprint, :expiresAt)
+            on conflict (idempotency_key) do update
+            set fingerprint = excluded.fingerprint,
+                expires_at = excluded.expires_at,
+                status = null,
+                content_type = null,
+                body = null
+            where idempotency_keys.expires_at < :now
+            """)
+    int claim(
+            @Param("key") String key,
+            @Param("fingerprint") String fingerprint,
+            @Param("expiresAt") LocalDateTime expiresAt,
+            @Param("now") LocalDateTime now
+    );
+
+    @Query(nativeQuery = true, value = "select current_setting('lock_timeout')")
+    String findLockTimeout();
+
+    /**
+     * {@code SET LOCAL lock_timeout}, which can't take a parameter: the value
+     * is kept until the end of the current transaction.
+     */
+    @Query(nativeQuery = true, value = "select set_config('lock_timeout', :lockTimeout, true)")
+    String setLockTimeout(@Param("lockTimeout") String lockTimeout);
+
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r
+            set r.status = :status, r.contentType = :contentType, r.body = :body
+            where r.key = :key
+            """)
+    int complete(
+            @Param("key") String key,
+            @Param("status") int status,
+            @Param("contentType") String contentType,
+            @Param("body") byte[] body
+    );
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
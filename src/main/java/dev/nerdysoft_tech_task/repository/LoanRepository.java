@@ -0,0 +1,50 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.model.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanRepository extends
+        JpaRepository<Loan, Long>
+{
+    @Query("""
+            select l.id
+            from Loan l
+            where l.overdue = false and l.dueAt < :now
+            order by l.dueAt
+            """)
+    List<Long> findNotMarkedOverdueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Loan l set l.overdue = true where l.id in :ids")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+
+    Page<Loan> findAllByOverdueTrue(Pageable pageable);
+
+    @Query("select l.book from Loan l where l.member.id = :memberId")
+    List<Book> findBorrowedBooksByMemberId(@Param("memberId") Long memberId);
+
+    long countByMemberId(Long memberId);
+
+    boolean existsByMemberId(Long memberId);
+
+    @Query("select count(distinct l.member.id) from Loan l")
+    long countMembers();
+
+    @Modifying
+    @Query("delete from Loan l where l.member.id = :memberId and l.book.id = :bookId")
+    int deleteByMemberIdAndBookId(@Param("memberId") Long memberId, @Param("bookId") Long bookId);
+}
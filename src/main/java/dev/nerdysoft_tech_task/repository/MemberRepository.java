@@ -1,15 +1,51 @@
 package dev.nerdysoft_tech_task.repository;
 
 import dev.nerdysoft_tech_task.model.Member;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
 public interface MemberRepository extends
-        JpaRepository<Member, Long>,
-        JpaSpecificationExecutor<Member>
+        JpaRepository<Member, Long>
 {
+    @Query(value = """
+            select new dev.nerdysoft_tech_task.repository.MemberRow(m.id, m.name, m.membershipDate)
+            from Member m
+            """,
+            countQuery = "select count(m) from Member m")
+    Page<MemberRow> findAllRows(Pageable pageable);
+
+    @Query(value = """
+            select new dev.nerdysoft_tech_task.repository.MemberRow(m.id, m.name, m.membershipDate)
+            from Member m
+            where m.name = :name
+            """,
+            countQuery = "select count(m) from Member m where m.name = :name")
+    Page<MemberRow> findAllRowsByName(@Param("name") String name, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m.id from Member m where m.id = :id")
+    Optional<Long> findIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Member m where m.id = :id")
+    Optional<Member> findByIdForUpdate(@Param("id") Long id);
 
+    /**
+     * Locks in id order, so two chunks with common members can't deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Member m where m.id in :ids order by m.id")
+    List<Member> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
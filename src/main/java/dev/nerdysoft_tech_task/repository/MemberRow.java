@@ -0,0 +1,13 @@
+package dev.nerdysoft_tech_task.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Member columns selected by read-only listings instead of managed {@code Member} entities.
+ */
+public record MemberRow(
+        Long id,
+        String name,
+        LocalDateTime membershipDate
+) {
+}
@@ -0,0 +1,74 @@
+package dev.nerdysoft_tech_task.repository;
+
+/**
+ * Native stock slot statements shared by {@link StockSlotRepository} and the
+ * R2DBC stock slots of the reactive profile, so both pick slots the same way.
+ */
+public final class StockSlotQueries {
+
+    /**
+     * Takes one copy from a random non-empty slot that no other transaction holds.
+     */
+    public static final String DECREASE_RANDOM_UNLOCKED_SLOT = """
+            update stock_slots
+            set amount = amount - 1
+            where id = (
+                select id
+                from stock_slots
+                where book_id = :bookId and amount > 0
+                order by random()
+                limit 1
+                for update skip locked)
+            """;
+
+    /**
+     * Same as {@link #DECREASE_RANDOM_UNLOCKED_SLOT} but waits for a locked slot.
+     * When the slot it waited for was drained meanwhile, the pick yields no row
+     * even though other slots may still have copies, see {@link #HAS_NON_EMPTY_SLOT}.
+     */
+    public static final String DECREASE_RANDOM_SLOT = """
+            update stock_slots
+            set amount = amount - 1
+            where id = (
+                select id
+                from stock_slots
+                where book_id = :bookId and amount > 0
+                order by random()
+                limit 1
+                for update)
+            """;
+
+    public static final String INCREASE_RANDOM_UNLOCKED_SLOT = """
+            update stock_slots
+            set amount = amount + :amount
+            where id = (
+                select id
+                from stock_slots
+                where book_id = :bookId
+                order by random()
+                limit 1
+                for update skip locked)
+            """;
+
+    public static final String INCREASE_RANDOM_SLOT = """
+            update stock_slots
+            set amount = amount + :amount
+            where id = (
+                select id
+                from stock_slots
+                where book_id = :bookId
+                order by random()
+                limit 1
+                for update)
+            """;
+
+    public static final String HAS_NON_EMPTY_SLOT = """
+            select exists(
+                select 1
+                from stock_slots
+                where book_id = :bookId and amount > 0)
+            """;
+
+    private StockSlotQueries() {
+    }
+}
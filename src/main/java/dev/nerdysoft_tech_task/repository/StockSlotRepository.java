@@ -0,0 +1,57 @@
+package dev.nerdysoft_tech_task.repository;
+
+import dev.nerdysoft_tech_task.model.StockSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockSlotRepository extends
+        JpaRepository<StockSlot, Long>
+{
+    long countByBookId(Long bookId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockSlot> findAllByBookId(Long bookId);
+
+    @Query("select coalesce(sum(s.amount), 0) from StockSlot s where s.book.id = :bookId")
+    long sumAmountByBookId(@Param("bookId") Long bookId);
+
+    @Query("select coalesce(sum(s.amount), 0) from StockSlot s")
+    long sumAmount();
+
+    /**
+     * @see StockSlotQueries#DECREASE_RANDOM_UNLOCKED_SLOT
+     */
+    @Modifying
+    @Query(value = StockSlotQueries.DECREASE_RANDOM_UNLOCKED_SLOT, nativeQuery = true)
+    int decreaseRandomUnlockedSlot(@Param("bookId") Long bookId);
+
+    /**
+     * @see StockSlotQueries#DECREASE_RANDOM_SLOT
+     */
+    @Modifying
+    @Query(value = StockSlotQueries.DECREASE_RANDOM_SLOT, nativeQuery = true)
+    int decreaseRandomSlot(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query(value = StockSlotQueries.INCREASE_RANDOM_UNLOCKED_SLOT, nativeQuery = true)
+    int increaseRandomUnlockedSlot(@Param("bookId") Long bookId, @Param("amount") int amount);
+
+    @Modifying
+    @Query(value = StockSlotQueries.INCREASE_RANDOM_SLOT, nativeQuery = true)
+    int increaseRandomSlot(@Param("bookId") Long bookId, @Param("amount") int amount);
+
+    @Query(value = StockSlotQueries.HAS_NON_EMPTY_SLOT, nativeQuery = true)
+    boolean hasNonEmptySlot(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("delete from StockSlot s where s.book.id = :bookId")
+    int deleteAllByBookId(@Param("bookId") Long bookId);
+}
@@ -1,22 +1,27 @@
 package dev.nerdysoft_tech_task.service;
 
 import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
 import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.validation.BindException;
 
+import java.util.List;
 import java.util.Set;
 
 public interface BookService {
 
     BookDTO findById(Long id);
 
-    Page<BookDTO> findAll(Pageable pageable);
+    Page<BookDTO> findAll(BookFilterDTO filter, Pageable pageable);
 
     Set<BorrowedBookDTO> findAllBorrowedBooksTitles(Boolean showAmountBorrowed);
 
     BookDTO createBook(BookDTO dto);
 
+    List<BookDTO> importBooks(List<BookDTO> dtos) throws BindException;
+
     BookDTO updateBook(Long id, BookDTO dto);
 
     void deleteBook(Long id);
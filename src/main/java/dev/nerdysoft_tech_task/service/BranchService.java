@@ -0,0 +1,12 @@
+package dev.nerdysoft_tech_task.service;
+
+import dev.nerdysoft_tech_task.dto.BranchDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface BranchService {
+
+    Page<BranchDTO> findAll(Pageable pageable);
+
+    BranchDTO createBranch(BranchDTO dto);
+}
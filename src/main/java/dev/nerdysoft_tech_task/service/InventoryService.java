@@ -0,0 +1,19 @@
+package dev.nerdysoft_tech_task.service;
+
+import dev.nerdysoft_tech_task.dto.BookAvailabilityDTO;
+import dev.nerdysoft_tech_task.dto.StockTransferDTO;
+
+public interface InventoryService {
+
+    BookAvailabilityDTO findAvailability(Long bookId);
+
+    BookAvailabilityDTO transfer(Long bookId, StockTransferDTO dto);
+
+    void takeCopy(Long bookId, Long branchId);
+
+    void returnCopy(Long bookId, Long branchId);
+
+    BookAvailabilityDTO enableSlots(Long bookId, Integer slots);
+
+    BookAvailabilityDTO disableSlots(Long bookId);
+}
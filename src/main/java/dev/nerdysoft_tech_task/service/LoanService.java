@@ -0,0 +1,12 @@
+package dev.nerdysoft_tech_task.service;
+
+import dev.nerdysoft_tech_task.dto.LoanDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface LoanService {
+
+    Page<LoanDTO> findOverdue(Pageable pageable);
+
+    int markOverdueLoans();
+}
@@ -19,7 +19,9 @@ public interface MemberService {
 
     MemberDTO updateMember(Long id, MemberDTO dto);
 
+    void updateMemberAsync(Long id, MemberDTO dto);
+
     void deleteMember(Long id);
 
-    Set<BookDTO> updateBorrowedBooks(Long memberId, Long bookId);
+    Set<BookDTO> updateBorrowedBooks(Long memberId, Long bookId, Long branchId);
 }
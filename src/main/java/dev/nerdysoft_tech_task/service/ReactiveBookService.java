@@ -0,0 +1,24 @@
+package dev.nerdysoft_tech_task.service;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
+import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService {
+
+    Mono<BookDTO> findById(Long id);
+
+    Mono<Page<BookDTO>> findAll(BookFilterDTO filter, Pageable pageable);
+
+    Flux<BorrowedBookDTO> findAllBorrowedBooksTitles(Boolean showAmountBorrowed);
+
+    Mono<BookDTO> createBook(BookDTO dto);
+
+    Mono<BookDTO> updateBook(Long id, BookDTO dto);
+
+    Mono<Void> deleteBook(Long id);
+}
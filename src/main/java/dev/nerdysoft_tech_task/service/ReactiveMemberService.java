@@ -0,0 +1,27 @@
+package dev.nerdysoft_tech_task.service;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveMemberService {
+
+    Mono<MemberDTO> findById(Long id);
+
+    Flux<BookDTO> findMemberBooks(Long id);
+
+    Mono<Page<MemberDTO>> findAll(String name, Pageable pageable);
+
+    Mono<MemberDTO> createMember(MemberDTO dto);
+
+    Mono<MemberDTO> updateMember(Long id, MemberDTO dto);
+
+    Mono<Void> updateMemberAsync(Long id, MemberDTO dto);
+
+    Mono<Void> deleteMember(Long id);
+
+    Flux<BookDTO> updateBorrowedBooks(Long memberId, Long bookId, Long branchId);
+}
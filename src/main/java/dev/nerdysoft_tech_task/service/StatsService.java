@@ -0,0 +1,10 @@
+package dev.nerdysoft_tech_task.service;
+
+import dev.nerdysoft_tech_task.dto.AvailabilityStatsDTO;
+
+public interface StatsService {
+
+    AvailabilityStatsDTO findAvailabilityStats();
+
+    void reconcileAvailabilityStats();
+}
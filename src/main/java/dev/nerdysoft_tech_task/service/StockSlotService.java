@@ -0,0 +1,14 @@
+package dev.nerdysoft_tech_task.service;
+
+public interface StockSlotService {
+
+    boolean take(Long bookId, int amount);
+
+    void put(Long bookId, int amount);
+
+    long sumSlotsAmount(Long bookId);
+
+    void enableSlots(Long bookId, int slots);
+
+    void disableSlots(Long bookId);
+}
@@ -0,0 +1,134 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.AvailabilityStatsDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Library-wide totals kept in memory, so the availability summary doesn't scan
+ * {@code books} and {@code loans}. Services report what they changed and the
+ * change is applied once their transaction commits; a rolled back change is
+ * never counted. Changes made without these services (SQL, the reactive
+ * profile) are picked up by {@link StatsServiceImpl#reconcileAvailabilityStats()}.
+ * <p>
+ * Totals are one immutable value, so a reader never sees half of an update.
+ */
+@Component
+class AvailabilityCounters {
+
+    record Totals(
+            long titles,
+            long copies,
+            long copiesOnLoan,
+            long membersWithLoans
+    ) {
+        static final Totals ZERO = new Totals(0, 0, 0, 0);
+
+        Totals plus(
+                Totals other
+        ) {
+            return new Totals(
+                    titles + other.titles,
+                    copies + other.copies,
+                    copiesOnLoan + other.copiesOnLoan,
+                    membersWithLoans + other.membersWithLoans);
+        }
+
+        Totals minus(
+                Totals other
+        ) {
+            return new Totals(
+                    titles - other.titles,
+                    copies - other.copies,
+                    copiesOnLoan - other.copiesOnLoan,
+                    membersWithLoans - other.membersWithLoans);
+        }
+    }
+
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.ZERO);
+    private volatile LocalDateTime reconciledAt;
+
+    void titleAdded() {
+        changeAfterCommit(new Totals(1, 1, 0, 0));
+    }
+
+    void titleRemoved(
+            long copies
+    ) {
+        changeAfterCommit(new Totals(-1, -copies, 0, 0));
+    }
+
+    void copiesChanged(
+            long delta
+    ) {
+        if (delta != 0) {
+            changeAfterCommit(new Totals(0, delta, 0, 0));
+        }
+    }
+
+    void copyBorrowed(
+            boolean firstLoanOfMember
+    ) {
+        changeAfterCommit(new Totals(0, 0, 1, firstLoanOfMember ? 1 : 0));
+    }
+
+    void copyReturned(
+            boolean lastLoanOfMember
+    ) {
+        changeAfterCommit(new Totals(0, 0, -1, lastLoanOfMember ? -1 : 0));
+    }
+
+    private void changeAfterCommit(
+            Totals delta
+    ) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            totals.accumulateAndGet(delta, Totals::plus);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                totals.accumulateAndGet(delta, Totals::plus);
+            }
+        });
+    }
+
+    Totals current() {
+        return totals.get();
+    }
+
+    boolean isReconciled() {
+        return reconciledAt != null;
+    }
+
+    /**
+     * Replaces the totals with {@code counted}, keeping changes applied since
+     * {@code start} was read, as the count usually doesn't see them.
+     */
+    void reconcile(
+            Totals start,
+            Totals counted
+    ) {
+        totals.updateAndGet(now -> counted.plus(now.minus(start)));
+        reconciledAt = LocalDateTime.now();
+    }
+
+    AvailabilityStatsDTO snapshot() {
+        Totals snapshot = totals.get();
+
+        return AvailabilityStatsDTO
+                .builder()
+                .totalTitles(snapshot.titles())
+                .totalCopies(snapshot.copies())
+                .availableCopies(snapshot.copies() - snapshot.copiesOnLoan())
+                .copiesOnLoan(snapshot.copiesOnLoan())
+                .membersWithLoans(snapshot.membersWithLoans())
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+}
@@ -1,20 +1,33 @@
 package dev.nerdysoft_tech_task.service.impl;
 
 import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
 import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
+import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
 import dev.nerdysoft_tech_task.exception.CantBeDeletedException;
 import dev.nerdysoft_tech_task.exception.NotFoundException;
 import dev.nerdysoft_tech_task.exception.NotUniqueException;
+import dev.nerdysoft_tech_task.exception.UnsupportedSortException;
+import dev.nerdysoft_tech_task.jfr.BookCreateEvent;
+import dev.nerdysoft_tech_task.jfr.BorrowedTitlesEvent;
 import dev.nerdysoft_tech_task.mapper.BookMapper;
 import dev.nerdysoft_tech_task.model.Book;
 import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.BookSpecifications;
+import dev.nerdysoft_tech_task.repository.BranchStockRepository;
+import dev.nerdysoft_tech_task.repository.StockSlotRepository;
 import dev.nerdysoft_tech_task.service.BookService;
+import dev.nerdysoft_tech_task.service.StockSlotService;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindException;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,44 +37,77 @@ import java.util.stream.Collectors;
 public class BookServiceImpl implements BookService {
 
     private final BookRepository bookRepository;
+    private final BranchStockRepository branchStockRepository;
+    private final StockSlotRepository stockSlotRepository;
+    private final StockSlotService stockSlotService;
+    private final HotBookDetector hotBookDetector;
+    private final AvailabilityCounters availabilityCounters;
     private final BookMapper bookMapper;
+    private final BookDTOValidator bookDTOValidator;
+    private final SingleFlight singleFlight;
 
     @Override
     public BookDTO findById(
             Long id
     ) {
-        Book book = bookRepository
-                .findById(id)
-                .orElseThrow(() -> new NotFoundException("Book not found by id " + id));
+        return singleFlight.execute("book.findById", id, () -> {
+            Book book = bookRepository
+                    .findById(id)
+                    .orElseThrow(() -> new NotFoundException("Book not found by id " + id));
 
-        return bookMapper.toDTO(book);
+            return bookMapper.toDTO(book);
+        });
     }
 
     @Override
     public Page<BookDTO> findAll(
+            BookFilterDTO filter,
             Pageable pageable
     ) {
-        Page<Book> bookPage = bookRepository.findAll(pageable);
+        checkIfSortIsSupported(pageable.getSort());
 
-        return bookPage.map(bookMapper::toDTO);
+        return bookRepository.findAllAsDTO(BookSpecifications.matches(filter), pageable);
+    }
+
+    private void checkIfSortIsSupported(
+            Sort sort
+    ) {
+        for (Sort.Order order : sort) {
+            if (!BookSpecifications.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new UnsupportedSortException("Books can't be sorted by " + order.getProperty() +
+                        ", supported properties are " + BookSpecifications.SORTABLE_PROPERTIES);
+            }
+        }
     }
 
     @Override
     public Set<BorrowedBookDTO> findAllBorrowedBooksTitles(
             Boolean showAmountBorrowed
     ) {
+        return singleFlight.execute(
+                "book.findAllBorrowedBooksTitles",
+                showAmountBorrowed,
+                () -> findBorrowedBooksTitles(showAmountBorrowed));
+    }
+
+    private Set<BorrowedBookDTO> findBorrowedBooksTitles(
+            Boolean showAmountBorrowed
+    ) {
+        BorrowedTitlesEvent event = new BorrowedTitlesEvent();
+        event.begin();
+
         List<Book> books = bookRepository.findAll();
 
         Map<String, Integer> distinctNamesAndBorrowedAmountSumByName = books
                 .stream()
-                .filter(book -> !book.getBorrowingMembers().isEmpty())
+                .filter(book -> !book.getLoans().isEmpty())
                 .collect(Collectors.toMap(
                         Book::getTitle,
-                        book -> book.getBorrowingMembers().size(),
+                        book -> book.getLoans().size(),
                         Integer::sum
                 ));
 
-        return distinctNamesAndBorrowedAmountSumByName
+        Set<BorrowedBookDTO> titles = distinctNamesAndBorrowedAmountSumByName
                 .entrySet()
                 .stream()
                 .map(entry -> BorrowedBookDTO
@@ -70,6 +116,12 @@ public class BookServiceImpl implements BookService {
                         .amountBorrowed(showAmountBorrowed ? entry.getValue() : null)
                         .build())
                 .collect(Collectors.toSet());
+
+        event.setBooksLoaded(books.size());
+        event.setTitles(titles.size());
+        event.setShowAmountBorrowed(showAmountBorrowed);
+        event.commit();
+        return titles;
     }
 
     @Override
@@ -77,6 +129,9 @@ public class BookServiceImpl implements BookService {
     public BookDTO createBook(
             BookDTO dto
     ) {
+        BookCreateEvent event = new BookCreateEvent();
+        event.begin();
+
         Optional<Book> bookByTitleAndAuthor = bookRepository
                 .findByTitleAndAuthor(dto.title(), dto.author());
 
@@ -84,41 +139,89 @@ public class BookServiceImpl implements BookService {
         if (bookByTitleAndAuthor.isPresent()) {
             book = bookByTitleAndAuthor.get();
 
-            book.setAmount(book.getAmount() + 1);
+            if (book.isSharded()) {
+                changeSlotsAmount(book, 1);
+            } else {
+                book.setAmount(book.getAmount() + 1);
+            }
         } else {
             book = Book
                     .builder()
                     .title(dto.title())
                     .author(dto.author())
                     .amount(1)
-                    .borrowingMembers(new HashSet<>())
+                    .loans(new HashSet<>())
                     .build();
         }
 
         Book savedBook = bookRepository.save(book);
+
+        if (bookByTitleAndAuthor.isPresent()) {
+            availabilityCounters.copiesChanged(1);
+        } else {
+            availabilityCounters.titleAdded();
+        }
+
+        event.setBookId(savedBook.getId());
+        event.setNewBook(bookByTitleAndAuthor.isEmpty());
+        event.setSharded(savedBook.isSharded());
+        event.commit();
         return bookMapper.toDTO(savedBook);
     }
 
+    /**
+     * Validates every entry first, so an invalid entry imports nothing.
+     * Field names in errors are prefixed with the entry index, e.g. {@code [2].title}.
+     */
+    @Override
+    @Transactional
+    public List<BookDTO> importBooks(
+            List<BookDTO> dtos
+    ) throws BindException {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(dtos, "books");
+        for (int i = 0; i < dtos.size(); i++) {
+            errors.pushNestedPath("[" + i + "]");
+            bookDTOValidator.validate(dtos.get(i), errors);
+            errors.popNestedPath();
+        }
+        if (errors.hasErrors()) {
+            throw new BindException(errors);
+        }
+
+        List<BookDTO> books = new ArrayList<>(dtos.size());
+        for (BookDTO dto : dtos) {
+            books.add(createBook(dto));
+        }
+        return books;
+    }
+
     @Override
     @Transactional
     public BookDTO updateBook(
             Long id,
             BookDTO dto
     ) {
-        Book book = bookRepository
-                .findById(id)
-                .orElseThrow(() -> new NotFoundException("Book not found by id " + id));
+        hotBookDetector.updateStarted(id);
+        try {
+            Book book = bookRepository
+                    .findById(id)
+                    .orElseThrow(() -> new NotFoundException("Book not found by id " + id));
 
-        updateTitleIfHasTextAndNotEquals(book, dto);
+            updateTitleIfHasTextAndNotEquals(book, dto);
 
-        updateAuthorIfHasTextAndNotEquals(book, dto);
+            updateAuthorIfHasTextAndNotEquals(book, dto);
 
-        checkIfBookWithNewTitleAndNewAuthorIsAlreadyExist(id, dto);
+            checkIfBookWithNewTitleAndNewAuthorIsAlreadyExist(id, dto);
 
-        updateAmountIfNotNullAndNotEquals(book, dto);
+            int oldAmount = book.getAvailableAmount();
+            updateAmountIfNotNullAndNotEquals(book, dto);
+            availabilityCounters.copiesChanged(book.getAvailableAmount() - oldAmount);
 
-        Book savedBook = bookRepository.save(book);
-        return bookMapper.toDTO(savedBook);
+            Book savedBook = bookRepository.save(book);
+            return bookMapper.toDTO(savedBook);
+        } finally {
+            hotBookDetector.updateFinished(id);
+        }
     }
 
     private void updateTitleIfHasTextAndNotEquals(
@@ -159,11 +262,30 @@ public class BookServiceImpl implements BookService {
             Book book,
             BookDTO dto
     ) {
-        Integer oldAmount = book.getAmount();
+        Integer oldAmount = book.getAvailableAmount();
         Integer newAmount = dto.amount();
         if (newAmount != null && !newAmount.equals(oldAmount)) {
-            book.setAmount(newAmount);
+            if (book.isSharded()) {
+                changeSlotsAmount(book, newAmount - oldAmount);
+            } else {
+                book.setAmount(newAmount);
+            }
+        }
+    }
+
+    private void changeSlotsAmount(
+            Book book,
+            int delta
+    ) {
+        if (delta < 0) {
+            if (!stockSlotService.take(book.getId(), -delta)) {
+                throw new BookCantBeBorrowedException("Amount of books with id " + book.getId() + " is 0");
+            }
+        } else {
+            stockSlotService.put(book.getId(), delta);
         }
+
+        book.setSlotsAmount((int) stockSlotService.sumSlotsAmount(book.getId()));
     }
 
     @Override
@@ -175,10 +297,16 @@ public class BookServiceImpl implements BookService {
                 .findById(id)
                 .orElseThrow(() -> new NotFoundException("Book not found by id " + id));
 
-        if (!book.getBorrowingMembers().isEmpty()) {
+        if (!book.getLoans().isEmpty()) {
             throw new CantBeDeletedException("Book can't be deleted because it was borrowed by member");
         }
 
+        long copies = book.getAvailableAmount() + branchStockRepository.sumAmountByBookId(id);
+
+        branchStockRepository.deleteAllByBookId(id);
+        stockSlotRepository.deleteAllByBookId(id);
         bookRepository.delete(book);
+
+        availabilityCounters.titleRemoved(copies);
     }
 }
@@ -0,0 +1,48 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.BranchDTO;
+import dev.nerdysoft_tech_task.exception.NotUniqueException;
+import dev.nerdysoft_tech_task.mapper.BranchMapper;
+import dev.nerdysoft_tech_task.model.Branch;
+import dev.nerdysoft_tech_task.repository.BranchRepository;
+import dev.nerdysoft_tech_task.service.BranchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class BranchServiceImpl implements BranchService {
+
+    private final BranchRepository branchRepository;
+    private final BranchMapper branchMapper;
+
+    @Override
+    public Page<BranchDTO> findAll(
+            Pageable pageable
+    ) {
+        Page<Branch> branchPage = branchRepository.findAll(pageable);
+
+        return branchPage.map(branchMapper::toDTO);
+    }
+
+    @Override
+    @Transactional
+    public BranchDTO createBranch(
+            BranchDTO dto
+    ) {
+        if (branchRepository.existsByName(dto.name())) {
+            throw new NotUniqueException("Branch with given name is already exist");
+        }
+
+        Branch branch = Branch
+                .builder()
+                .name(dto.name())
+                .build();
+
+        Branch savedBranch = branchRepository.save(branch);
+        return branchMapper.toDTO(savedBranch);
+    }
+}
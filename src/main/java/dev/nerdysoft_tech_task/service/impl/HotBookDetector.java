@@ -0,0 +1,93 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.service.StockSlotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts concurrent stock updates per book. A book that reaches
+ * {@code autoSlotsThreshold} concurrent updates is remembered and
+ * its stock is later spread over stock slots by {@link #enableSlotsForHotBooks()}.
+ * <p>
+ * Counters start from scratch when the context is restarted, e.g. restored from a CRaC checkpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class HotBookDetector implements SmartLifecycle {
+
+    private final StockSlotService stockSlotService;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> inFlightUpdates = new ConcurrentHashMap<>();
+    private final Set<Long> hotBookIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    @Value("${custom.stock.autoSlotsEnabled:true}")
+    private Boolean autoSlotsEnabled;
+
+    @Value("${custom.stock.autoSlotsThreshold:8}")
+    private Integer autoSlotsThreshold;
+
+    @Value("${custom.stock.defaultSlots:8}")
+    private Integer defaultSlots;
+
+    void updateStarted(
+            Long bookId
+    ) {
+        int inFlight = inFlightUpdates
+                .computeIfAbsent(bookId, id -> new AtomicInteger())
+                .incrementAndGet();
+
+        if (autoSlotsEnabled && inFlight >= autoSlotsThreshold) {
+            hotBookIds.add(bookId);
+        }
+    }
+
+    void updateFinished(
+            Long bookId
+    ) {
+        inFlightUpdates.computeIfPresent(bookId, (id, inFlight) -> inFlight.decrementAndGet() == 0 ? null : inFlight);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        inFlightUpdates.clear();
+        hotBookIds.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${custom.stock.autoSlotsDelay:PT30S}")
+    void enableSlotsForHotBooks() {
+        List<Long> bookIds = new ArrayList<>(hotBookIds);
+        hotBookIds.removeAll(bookIds);
+
+        for (Long bookId : bookIds) {
+            try {
+                stockSlotService.enableSlots(bookId, defaultSlots);
+                log.info("Stock of book with id {} is spread over {} slots", bookId, defaultSlots);
+            } catch (RuntimeException e) {
+                log.warn("Can't enable stock slots for book with id {}", bookId, e);
+            }
+        }
+    }
+}
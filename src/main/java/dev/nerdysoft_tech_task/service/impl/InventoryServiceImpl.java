@@ -0,0 +1,175 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.BookAvailabilityDTO;
+import dev.nerdysoft_tech_task.dto.BranchStockDTO;
+import dev.nerdysoft_tech_task.dto.StockTransferDTO;
+import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
+import dev.nerdysoft_tech_task.exception.CantBeTransferredException;
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.mapper.BranchMapper;
+import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.BranchRepository;
+import dev.nerdysoft_tech_task.repository.BranchStockRepository;
+import dev.nerdysoft_tech_task.service.InventoryService;
+import dev.nerdysoft_tech_task.service.StockSlotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stock of a book is split between the central stock ({@code books.amount}
+ * plus its stock slots) and one {@code branch_stocks} row per branch.
+ * A {@code null} branch id always means the central stock.
+ * <p>
+ * Every change is a single conditional UPDATE of one row, so concurrent
+ * borrows at different branches never wait for each other.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+
+    private final BookRepository bookRepository;
+    private final BranchRepository branchRepository;
+    private final BranchStockRepository branchStockRepository;
+    private final StockSlotService stockSlotService;
+    private final BranchMapper branchMapper;
+
+    @Override
+    public BookAvailabilityDTO findAvailability(
+            Long bookId
+    ) {
+        Book book = bookRepository
+                .findById(bookId)
+                .orElseThrow(() -> new NotFoundException("Book not found by id " + bookId));
+
+        List<BranchStockDTO> branches = branchStockRepository.findAllByBookIdWithBranch(bookId)
+                .stream()
+                .map(branchMapper::toDTO)
+                .toList();
+
+        long totalAmount = book.getAvailableAmount() + branches
+                .stream()
+                .mapToLong(BranchStockDTO::amount)
+                .sum();
+
+        return BookAvailabilityDTO
+                .builder()
+                .bookId(bookId)
+                .centralAmount(book.getAvailableAmount())
+                .totalAmount(totalAmount)
+                .branches(branches)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public BookAvailabilityDTO transfer(
+            Long bookId,
+            StockTransferDTO dto
+    ) {
+        checkIfBookExists(bookId);
+        checkIfBranchExists(dto.fromBranchId());
+        checkIfBranchExists(dto.toBranchId());
+
+        if (Objects.equals(dto.fromBranchId(), dto.toBranchId())) {
+            throw new CantBeTransferredException("Source and target of transfer are the same");
+        }
+
+        if (!decreaseAmount(bookId, dto.fromBranchId(), dto.amount())) {
+            throw new CantBeTransferredException("Not enough copies of book with id " + bookId +
+                    " to transfer " + dto.amount() + " of them");
+        }
+        increaseAmount(bookId, dto.toBranchId(), dto.amount());
+
+        return findAvailability(bookId);
+    }
+
+    @Override
+    @Transactional
+    public void takeCopy(
+            Long bookId,
+            Long branchId
+    ) {
+        checkIfBranchExists(branchId);
+
+        if (!decreaseAmount(bookId, branchId, 1)) {
+            throw new BookCantBeBorrowedException("Amount of books with id " + bookId +
+                    " in branch with id " + branchId + " is 0");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void returnCopy(
+            Long bookId,
+            Long branchId
+    ) {
+        checkIfBranchExists(branchId);
+
+        increaseAmount(bookId, branchId, 1);
+    }
+
+    @Override
+    public BookAvailabilityDTO enableSlots(
+            Long bookId,
+            Integer slots
+    ) {
+        stockSlotService.enableSlots(bookId, slots);
+
+        return findAvailability(bookId);
+    }
+
+    @Override
+    public BookAvailabilityDTO disableSlots(
+            Long bookId
+    ) {
+        stockSlotService.disableSlots(bookId);
+
+        return findAvailability(bookId);
+    }
+
+    private void checkIfBookExists(
+            Long bookId
+    ) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new NotFoundException("Book not found by id " + bookId);
+        }
+    }
+
+    private void checkIfBranchExists(
+            Long branchId
+    ) {
+        if (branchId != null && !branchRepository.existsById(branchId)) {
+            throw new NotFoundException("Branch not found by id " + branchId);
+        }
+    }
+
+    private boolean decreaseAmount(
+            Long bookId,
+            Long branchId,
+            int amount
+    ) {
+        if (branchId == null) {
+            return stockSlotService.take(bookId, amount);
+        }
+
+        return branchStockRepository.decreaseAmount(bookId, branchId, amount) > 0;
+    }
+
+    private void increaseAmount(
+            Long bookId,
+            Long branchId,
+            int amount
+    ) {
+        if (branchId == null) {
+            stockSlotService.put(bookId, amount);
+            return;
+        }
+
+        branchStockRepository.increaseAmount(bookId, branchId, amount);
+    }
+}
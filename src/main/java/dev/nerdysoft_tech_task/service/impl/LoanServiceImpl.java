@@ -0,0 +1,60 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.LoanDTO;
+import dev.nerdysoft_tech_task.mapper.LoanMapper;
+import dev.nerdysoft_tech_task.model.Loan;
+import dev.nerdysoft_tech_task.repository.LoanRepository;
+import dev.nerdysoft_tech_task.service.LoanService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class LoanServiceImpl implements LoanService {
+
+    private final LoanRepository loanRepository;
+    private final LoanMapper loanMapper;
+
+    @Value("${custom.loan.overdueScanBatchSize:500}")
+    private Integer overdueScanBatchSize;
+
+    @Override
+    public Page<LoanDTO> findOverdue(
+            Pageable pageable
+    ) {
+        Page<Loan> loanPage = loanRepository.findAllByOverdueTrue(pageable);
+
+        return loanPage.map(loanMapper::toDTO);
+    }
+
+    /**
+     * Walks the (overdue, due_at) index in batches of {@code overdueScanBatchSize},
+     * so only loans that became overdue since the previous run are touched.
+     * Every batch is committed separately to keep lock time short.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${custom.loan.overdueScanDelay:PT1M}")
+    public int markOverdueLoans() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable batch = PageRequest.ofSize(overdueScanBatchSize);
+
+        int marked = 0;
+        List<Long> ids;
+        do {
+            ids = loanRepository.findNotMarkedOverdueIds(now, batch);
+            if (!ids.isEmpty()) {
+                marked += loanRepository.markOverdue(ids);
+            }
+        } while (ids.size() == overdueScanBatchSize);
+
+        return marked;
+    }
+}
@@ -5,26 +5,29 @@ import dev.nerdysoft_tech_task.dto.MemberDTO;
 import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
 import dev.nerdysoft_tech_task.exception.CantBeDeletedException;
 import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.jfr.BorrowEvent;
 import dev.nerdysoft_tech_task.mapper.BookMapper;
 import dev.nerdysoft_tech_task.mapper.MemberMapper;
 import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.model.Loan;
 import dev.nerdysoft_tech_task.model.Member;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.LoanRepository;
 import dev.nerdysoft_tech_task.repository.MemberRepository;
-import dev.nerdysoft_tech_task.service.BookService;
+import dev.nerdysoft_tech_task.repository.MemberRow;
+import dev.nerdysoft_tech_task.service.InventoryService;
 import dev.nerdysoft_tech_task.service.MemberService;
-import jakarta.persistence.criteria.Predicate;
+import dev.nerdysoft_tech_task.service.StockSlotService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -34,13 +37,23 @@ import java.util.stream.Collectors;
 public class MemberServiceImpl implements MemberService {
 
     private final MemberRepository memberRepository;
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
     private final MemberMapper memberMapper;
-    private final BookService bookService;
+    private final InventoryService inventoryService;
+    private final StockSlotService stockSlotService;
+    private final HotBookDetector hotBookDetector;
+    private final AvailabilityCounters availabilityCounters;
     private final BookMapper bookMapper;
+    private final MemberWriteBehind memberWriteBehind;
+    private final SingleFlight singleFlight;
 
     @Value("${custom.validation.bookBorrowLimit:10}")
     private Integer borrowLimit;
 
+    @Value("${custom.loan.period:14d}")
+    private Duration loanPeriod;
+
     @Override
     public MemberDTO findById(
             Long id
@@ -56,11 +69,38 @@ public class MemberServiceImpl implements MemberService {
     public Set<BookDTO> findMemberBooks(
             Long id
     ) {
-        Member member = memberRepository
-                .findById(id)
-                .orElseThrow(() -> new NotFoundException("Member not found by id " + id));
+        return singleFlight.execute("member.findMemberBooks", id, () -> {
+            checkIfMemberExists(id);
+
+            return findBorrowedBooks(id);
+        });
+    }
+
+    private void checkIfMemberExists(
+            Long id
+    ) {
+        if (!memberRepository.existsById(id)) {
+            throw new NotFoundException("Member not found by id " + id);
+        }
+    }
+
+    /**
+     * Borrows and returns of one member run one at a time, so the loan limit
+     * and the first and last loan of the member seen by
+     * {@link AvailabilityCounters} hold under concurrent requests.
+     */
+    private void lockMember(
+            Long id
+    ) {
+        if (memberRepository.findIdForUpdate(id).isEmpty()) {
+            throw new NotFoundException("Member not found by id " + id);
+        }
+    }
 
-        Set<Book> borrowedBooks = member.getBorrowedBooks();
+    private Set<BookDTO> findBorrowedBooks(
+            Long memberId
+    ) {
+        List<Book> borrowedBooks = loanRepository.findBorrowedBooksByMemberId(memberId);
 
         return borrowedBooks
                 .stream()
@@ -73,28 +113,13 @@ public class MemberServiceImpl implements MemberService {
             String name,
             Pageable pageable
     ) {
-        Page<Member> memberPage = memberRepository.findAll(addNameSpecification(name), pageable);
+        Page<MemberRow> memberPage = StringUtils.hasText(name)
+                ? memberRepository.findAllRowsByName(name, pageable)
+                : memberRepository.findAllRows(pageable);
 
         return memberPage.map(memberMapper::toDTO);
     }
 
-    private Specification<Member> addNameSpecification(
-            String name
-    ) {
-        return (root, query, builder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            if (StringUtils.hasText(name)) {
-                predicates.add(builder.equal(
-                        root.get("name"),
-                        name
-                ));
-            }
-
-            return builder.and(predicates.toArray(new Predicate[0]));
-        };
-    }
-
     @Override
     @Transactional
     public MemberDTO createMember(
@@ -104,7 +129,6 @@ public class MemberServiceImpl implements MemberService {
                 .builder()
                 .name(dto.name())
                 .membershipDate(LocalDateTime.now())
-                .borrowedBooks(new HashSet<>())
                 .build();
 
         Member savedMember = memberRepository.save(member);
@@ -117,16 +141,28 @@ public class MemberServiceImpl implements MemberService {
             Long id,
             MemberDTO dto
     ) {
+        // locked before the discard, so a flush of the member's pending name commits first or skips it
         Member member = memberRepository
-                .findById(id)
+                .findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Member not found by id " + id));
 
+        memberWriteBehind.discard(id);
         updateNameIfHasTextAndNotEquals(member, dto);
 
         Member savedMember = memberRepository.save(member);
         return memberMapper.toDTO(savedMember);
     }
 
+    @Override
+    public void updateMemberAsync(
+            Long id,
+            MemberDTO dto
+    ) {
+        if (StringUtils.hasText(dto.name())) {
+            memberWriteBehind.enqueue(id, dto.name());
+        }
+    }
+
     private void updateNameIfHasTextAndNotEquals(
             Member member,
             MemberDTO dto
@@ -147,93 +183,133 @@ public class MemberServiceImpl implements MemberService {
                 .findById(id)
                 .orElseThrow(() -> new NotFoundException("Member not found by id " + id));
 
-        if (!member.getBorrowedBooks().isEmpty()) {
+        if (loanRepository.existsByMemberId(id)) {
             throw new CantBeDeletedException("Member can't be deleted because he hasn't return all borrowed books yet");
         }
 
+        memberWriteBehind.discard(id);
         memberRepository.delete(member);
     }
 
+    /**
+     * Toggles the loan of the book: the loan row is deleted if it exists,
+     * otherwise a new one is inserted. Neither path loads the member's loans
+     * or the book; stock is changed by atomic updates on ids, and the book is
+     * only looked up when there is no copy to take.
+     * The copy is taken from or returned to the given branch, or to the
+     * central stock when no branch is given.
+     */
     @Override
     @Transactional
     public Set<BookDTO> updateBorrowedBooks(
             Long memberId,
-            Long bookId
+            Long bookId,
+            Long branchId
     ) {
-        Member member = memberRepository
-                .findById(memberId)
-                .orElseThrow(() -> new NotFoundException("Member not found by id " + memberId));
-
-        Set<Long> membersBorrowedBooksIds = member.getBorrowedBooks()
-                .stream()
-                .map(Book::getId)
-                .collect(Collectors.toSet());
-
-        BookDTO bookDto = bookService.findById(bookId);
+        BorrowEvent event = new BorrowEvent();
+        event.begin();
+        event.setMemberId(memberId);
+        event.setBookId(bookId);
+        event.setBranchId(branchId != null ? branchId : 0);
+        event.setFailed(true);
+        try {
+            lockMember(memberId);
+
+            int deletedLoans = loanRepository.deleteByMemberIdAndBookId(memberId, bookId);
+            event.setReturned(deletedLoans > 0);
+            if (deletedLoans > 0) {
+                returnBook(bookId, branchId);
+                availabilityCounters.copyReturned(!loanRepository.existsByMemberId(memberId));
+            } else {
+                borrowBook(memberId, bookId, branchId);
+            }
 
-        if (membersBorrowedBooksIds.contains(bookId)) {
-            returnBook(member, bookDto);
-        } else {
-            borrowBook(member, bookDto);
+            Set<BookDTO> borrowedBooks = findBorrowedBooks(memberId);
+            event.setFailed(false);
+            return borrowedBooks;
+        } finally {
+            event.commit();
         }
+    }
 
-        Member savedMember = memberRepository.save(member);
-        return savedMember.getBorrowedBooks()
-                .stream()
-                .map(bookMapper::toDTO)
-                .collect(Collectors.toSet());
+    private void checkIfBookExists(
+            Long id
+    ) {
+        if (!bookRepository.existsById(id)) {
+            throw new NotFoundException("Book not found by id " + id);
+        }
     }
 
     private void returnBook(
-            Member member,
-            BookDTO bookDto
+            Long bookId,
+            Long branchId
     ) {
-        BookDTO bookDtoWithAmountPlus1 = BookDTO
-                .builder()
-                .id(bookDto.id())
-                .title(bookDto.title())
-                .author(bookDto.author())
-                .amount(bookDto.amount() + 1)
-                .build();
+        if (branchId != null) {
+            inventoryService.returnCopy(bookId, branchId);
+            return;
+        }
 
-        BookDTO updatedBookDTO = bookService.updateBook(bookDtoWithAmountPlus1.id(), bookDtoWithAmountPlus1);
-        member.getBorrowedBooks()
-                .removeIf(book -> book.getId().equals(updatedBookDTO.id()));
+        hotBookDetector.updateStarted(bookId);
+        try {
+            stockSlotService.put(bookId, 1);
+        } finally {
+            hotBookDetector.updateFinished(bookId);
+        }
     }
 
     private void borrowBook(
-            Member member,
-            BookDTO bookDto
+            Long memberId,
+            Long bookId,
+            Long branchId
     ) {
-        checkIfBookAmountIsZero(bookDto);
-        checkIfMemberBorrowedMaxAllowedAmountOfBooks(member);
+        long memberLoans = loanRepository.countByMemberId(memberId);
+        checkIfMemberBorrowedMaxAllowedAmountOfBooks(memberId, memberLoans);
+
+        if (branchId != null) {
+            checkIfBookExists(bookId);
+            inventoryService.takeCopy(bookId, branchId);
+        } else {
+            takeCentralCopy(bookId);
+        }
 
-        BookDTO bookDtoWithAmountMinus1 = BookDTO
+        LocalDateTime borrowedAt = LocalDateTime.now();
+        Loan loan = Loan
                 .builder()
-                .id(bookDto.id())
-                .title(bookDto.title())
-                .author(bookDto.author())
-                .amount(bookDto.amount() - 1)
+                .member(memberRepository.getReferenceById(memberId))
+                .book(bookRepository.getReferenceById(bookId))
+                .borrowedAt(borrowedAt)
+                .dueAt(borrowedAt.plus(loanPeriod))
+                .overdue(false)
                 .build();
 
-        BookDTO updatedBookDTO = bookService.updateBook(bookDtoWithAmountMinus1.id(), bookDtoWithAmountMinus1);
-        member.getBorrowedBooks()
-                .add(bookMapper.toEntity(updatedBookDTO));
+        loanRepository.save(loan);
+        availabilityCounters.copyBorrowed(memberLoans == 0);
     }
 
-    private void checkIfBookAmountIsZero(
-            BookDTO dto
+    /**
+     * Counted by {@link HotBookDetector} like any other stock update,
+     * so a book borrowed concurrently is still spread over stock slots.
+     */
+    private void takeCentralCopy(
+            Long bookId
     ) {
-        if (dto.amount() == 0) {
-            throw new BookCantBeBorrowedException("Amount of books with id " + dto.id() + " is 0");
+        hotBookDetector.updateStarted(bookId);
+        try {
+            if (!stockSlotService.take(bookId, 1)) {
+                checkIfBookExists(bookId);
+                throw new BookCantBeBorrowedException("Amount of books with id " + bookId + " is 0");
+            }
+        } finally {
+            hotBookDetector.updateFinished(bookId);
         }
     }
 
     private void checkIfMemberBorrowedMaxAllowedAmountOfBooks(
-            Member member
+            Long memberId,
+            long memberLoans
     ) {
-        if (member.getBorrowedBooks().size() >= borrowLimit) {
-            throw new BookCantBeBorrowedException("Member with id " + member.getId() +
+        if (memberLoans >= borrowLimit) {
+            throw new BookCantBeBorrowedException("Member with id " + memberId +
                     " borrowed max allowed (" + borrowLimit + ") amount of books");
         }
     }
@@ -0,0 +1,186 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.exception.TooManyRequestsException;
+import dev.nerdysoft_tech_task.model.Member;
+import dev.nerdysoft_tech_task.repository.MemberRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pending member name changes accepted with 202 and written later.
+ * <ul>
+ *     <li>Coalescing: one pending name per member, the last one wins.</li>
+ *     <li>Backpressure: at most {@code capacity} members are pending; a change
+ *     for another member is rejected with 429 until the next flush.</li>
+ *     <li>Flush: every {@code flushDelay} pending names are written in chunks of
+ *     {@code batchSize}, one transaction per chunk; its UPDATEs are sent in JDBC
+ *     batches of {@code hibernate.jdbc.batch_size}.
+ *     A name stays pending until its chunk commits, so a failed chunk is retried
+ *     unless a newer name arrived or the change was discarded meanwhile.
+ *     Unknown member ids are dropped.</li>
+ *     <li>Durability: pending changes live only in memory. They are flushed when
+ *     the context stops (shutdown, CRaC checkpoint) after the web server stopped
+ *     taking requests, but lost if the process dies. Once stopped, changes are
+ *     written synchronously.</li>
+ * </ul>
+ * A synchronous update of a member locks it and discards its pending change,
+ * and a chunk locks its members and writes only names that are still pending,
+ * so an older queued name never overwrites a newer one.
+ */
+@Slf4j
+@Component
+class MemberWriteBehind implements SmartLifecycle {
+
+    /**
+     * Stops after the web server, which stops at {@code DEFAULT_PHASE - 2048}
+     * once its graceful shutdown ({@code DEFAULT_PHASE - 1024}) is done.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /**
+     * Every enqueued name gets its own version, so a chunk only clears the
+     * entries it actually wrote.
+     */
+    private record PendingName(
+            String name,
+            long version
+    ) {
+    }
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, PendingName> pendingNames = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile boolean running;
+
+    @Value("${custom.member.writeBehind.capacity:10000}")
+    private Integer capacity;
+
+    @Value("${custom.member.writeBehind.flushDelay:PT1S}")
+    private Duration flushDelay;
+
+    @Value("${custom.member.writeBehind.batchSize:500}")
+    private Integer batchSize;
+
+    MemberWriteBehind(
+            MemberRepository memberRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("member.writebehind.pending", pendingNames, Map::size)
+                .description("Member updates waiting to be written")
+                .register(meterRegistry);
+    }
+
+    void enqueue(
+            Long memberId,
+            String name
+    ) {
+        if (!running) {
+            transactionTemplate.executeWithoutResult(status -> memberRepository
+                    .findByIdForUpdate(memberId)
+                    .ifPresent(member -> member.setName(name)));
+            return;
+        }
+        if (pendingNames.size() >= capacity && !pendingNames.containsKey(memberId)) {
+            throw new TooManyRequestsException("Too many pending member updates, try again later", flushDelay);
+        }
+        pendingNames.put(memberId, new PendingName(name, versions.incrementAndGet()));
+
+        // stop() may have taken its last snapshot before the put
+        if (!running) {
+            flush();
+        }
+    }
+
+    void discard(
+            Long memberId
+    ) {
+        pendingNames.remove(memberId);
+    }
+
+    @Scheduled(fixedDelayString = "${custom.member.writeBehind.flushDelay:PT1S}")
+    void flush() {
+        if (pendingNames.isEmpty()) {
+            return;
+        }
+
+        Map<Long, PendingName> batch = HashMap.newHashMap(batchSize);
+        for (Map.Entry<Long, PendingName> entry : List.copyOf(pendingNames.entrySet())) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == batchSize) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(
+            Map<Long, PendingName> batch
+    ) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeNames(batch));
+        } catch (RuntimeException e) {
+            log.warn("Can't write {} pending member updates, they will be retried", batch.size(), e);
+            return;
+        }
+        batch.forEach(pendingNames::remove);
+    }
+
+    /**
+     * A name discarded by a synchronous update before the lock was taken is
+     * skipped; a synchronous update that comes later waits for the lock.
+     */
+    private void writeNames(
+            Map<Long, PendingName> batch
+    ) {
+        List<Member> members = memberRepository.findAllByIdForUpdate(batch.keySet());
+        for (Member member : members) {
+            PendingName pending = batch.get(member.getId());
+            if (pending.equals(pendingNames.get(member.getId()))) {
+                member.setName(pending.name());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,350 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
+import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
+import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
+import dev.nerdysoft_tech_task.exception.CantBeDeletedException;
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.exception.NotUniqueException;
+import dev.nerdysoft_tech_task.exception.UnsupportedSortException;
+import dev.nerdysoft_tech_task.repository.BookSpecifications;
+import dev.nerdysoft_tech_task.service.ReactiveBookService;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Same behaviour as {@link BookServiceImpl}, written as plain SQL over R2DBC
+ * for the {@code reactive} profile.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    /**
+     * Columns of {@link BookDTO}; {@code amount} is the central stock, i.e. including stock slots.
+     */
+    static final String BOOK_COLUMNS = """
+            b.id, b.title, b.author,
+            b.amount + case
+                when b.sharded then (select coalesce(sum(s.amount), 0) from stock_slots s where s.book_id = b.id)::int
+                else 0
+            end as amount
+            """;
+
+    /**
+     * Same indexed properties as {@link BookSpecifications#SORTABLE_PROPERTIES}.
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "b.id",
+            "title", "b.title",
+            "author", "b.author");
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ReactiveStockSlots reactiveStockSlots;
+
+    static BookDTO toBookDTO(
+            Readable row
+    ) {
+        return BookDTO
+                .builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .author(row.get("author", String.class))
+                .amount(row.get("amount", Integer.class))
+                .build();
+    }
+
+    @Override
+    public Mono<BookDTO> findById(
+            Long id
+    ) {
+        return databaseClient
+                .sql("select " + BOOK_COLUMNS + " from books b where b.id = :id")
+                .bind("id", id)
+                .map(ReactiveBookServiceImpl::toBookDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Book not found by id " + id)));
+    }
+
+    /**
+     * Same filters as {@link BookSpecifications#matches(BookFilterDTO)}, including
+     * the byte order title range on {@code idx_books_title_prefix}.
+     */
+    @Override
+    public Mono<Page<BookDTO>> findAll(
+            BookFilterDTO filter,
+            Pageable pageable
+    ) {
+        checkIfSortIsSupported(pageable.getSort());
+
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (StringUtils.hasText(filter.author())) {
+            conditions.add("b.author = :author");
+            parameters.put("author", filter.author());
+        }
+
+        if (StringUtils.hasText(filter.titleStartsWith())) {
+            conditions.add("(b.title collate \"C\") >= :titleFrom");
+            parameters.put("titleFrom", filter.titleStartsWith());
+
+            String titleTo = BookSpecifications.nextPrefix(filter.titleStartsWith());
+            if (titleTo != null) {
+                conditions.add("(b.title collate \"C\") < :titleTo");
+                parameters.put("titleTo", titleTo);
+            }
+        }
+
+        if (filter.available() != null) {
+            String available = """
+                    (b.amount > 0 or b.sharded and exists(select 1 from stock_slots s where s.book_id = b.id and s.amount > 0))""";
+            conditions.add(filter.available() ? available : "not " + available);
+        }
+
+        if (filter.borrowed() != null) {
+            String borrowed = "exists(select 1 from loans l where l.book_id = b.id)";
+            conditions.add(filter.borrowed() ? borrowed : "not " + borrowed);
+        }
+
+        String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+
+        DatabaseClient.GenericExecuteSpec contentSpec = databaseClient
+                .sql("select " + BOOK_COLUMNS + " from books b" + where + ReactiveSql.orderByAndPage(pageable, SORT_COLUMNS));
+        DatabaseClient.GenericExecuteSpec totalSpec = databaseClient
+                .sql("select count(*) from books b" + where);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            contentSpec = contentSpec.bind(parameter.getKey(), parameter.getValue());
+            totalSpec = totalSpec.bind(parameter.getKey(), parameter.getValue());
+        }
+
+        Mono<List<BookDTO>> content = contentSpec
+                .map(ReactiveBookServiceImpl::toBookDTO)
+                .all()
+                .collectList();
+
+        Mono<Long> total = totalSpec
+                .map(row -> row.get(0, Long.class))
+                .one();
+
+        return Mono.zip(content, total, (books, count) -> new PageImpl<>(books, pageable, count));
+    }
+
+    private static void checkIfSortIsSupported(
+            Sort sort
+    ) {
+        for (Sort.Order order : sort) {
+            if (!SORT_COLUMNS.containsKey(order.getProperty())) {
+                throw new UnsupportedSortException("Books can't be sorted by " + order.getProperty() +
+                        ", supported properties are " + BookSpecifications.SORTABLE_PROPERTIES);
+            }
+        }
+    }
+
+    @Override
+    public Flux<BorrowedBookDTO> findAllBorrowedBooksTitles(
+            Boolean showAmountBorrowed
+    ) {
+        return databaseClient
+                .sql("""
+                        select b.title, count(*)::int as amount_borrowed
+                        from loans l
+                        join books b on b.id = l.book_id
+                        group by b.title
+                        """)
+                .map(row -> BorrowedBookDTO
+                        .builder()
+                        .title(row.get("title", String.class))
+                        .amountBorrowed(showAmountBorrowed ? row.get("amount_borrowed", Integer.class) : null)
+                        .build())
+                .all();
+    }
+
+    @Override
+    public Mono<BookDTO> createBook(
+            BookDTO dto
+    ) {
+        Mono<Long> bookId = databaseClient
+                .sql("select id, sharded from books where title = :title and author = :author")
+                .bind("title", dto.title())
+                .bind("author", dto.author())
+                .map(row -> new StoredBook(row.get("id", Long.class), Boolean.TRUE.equals(row.get("sharded", Boolean.class))))
+                .one()
+                .flatMap(book -> addOneCopy(book).thenReturn(book.id()))
+                .switchIfEmpty(Mono.defer(() -> insertBook(dto)));
+
+        return bookId
+                .flatMap(this::findById)
+                .as(transactionalOperator::transactional);
+    }
+
+    private record StoredBook(
+            Long id,
+            boolean sharded
+    ) {
+    }
+
+    private Mono<Void> addOneCopy(
+            StoredBook book
+    ) {
+        if (book.sharded()) {
+            return reactiveStockSlots.put(book.id(), 1);
+        }
+
+        return databaseClient
+                .sql("update books set amount = amount + 1 where id = :id")
+                .bind("id", book.id())
+                .then();
+    }
+
+    private Mono<Long> insertBook(
+            BookDTO dto
+    ) {
+        return databaseClient
+                .sql("insert into books (title, author, amount, sharded) values (:title, :author, 1, false) returning id")
+                .bind("title", dto.title())
+                .bind("author", dto.author())
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<BookDTO> updateBook(
+            Long id,
+            BookDTO dto
+    ) {
+        Mono<BookDTO> update = databaseClient
+                .sql("select " + BOOK_COLUMNS + ", b.sharded from books b where b.id = :id")
+                .bind("id", id)
+                .map(row -> new BookRow(toBookDTO(row), Boolean.TRUE.equals(row.get("sharded", Boolean.class))))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Book not found by id " + id)))
+                .flatMap(book -> checkIfBookWithNewTitleAndNewAuthorIsAlreadyExist(id, dto)
+                        .then(updateAmount(book, dto))
+                        .then(updateBookRow(book, dto)))
+                .then(Mono.defer(() -> findById(id)));
+
+        return update.as(transactionalOperator::transactional);
+    }
+
+    private record BookRow(
+            BookDTO book,
+            boolean sharded
+    ) {
+    }
+
+    private Mono<Void> checkIfBookWithNewTitleAndNewAuthorIsAlreadyExist(
+            Long id,
+            BookDTO dto
+    ) {
+        if (dto.title() == null || dto.author() == null) {
+            return Mono.empty();
+        }
+
+        return databaseClient
+                .sql("select id from books where title = :title and author = :author")
+                .bind("title", dto.title())
+                .bind("author", dto.author())
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .filter(existingId -> !Objects.equals(id, existingId))
+                .flatMap(existingId -> Mono.error(new NotUniqueException("Book with given title and author is already exist")));
+    }
+
+    /**
+     * Sharded books change their stock slots; other books get the new amount in {@link #updateBookRow}.
+     */
+    private Mono<Void> updateAmount(
+            BookRow row,
+            BookDTO dto
+    ) {
+        Integer oldAmount = row.book().amount();
+        Integer newAmount = dto.amount();
+        if (!row.sharded() || newAmount == null || newAmount.equals(oldAmount)) {
+            return Mono.empty();
+        }
+
+        Long id = row.book().id();
+        int delta = newAmount - oldAmount;
+        if (delta > 0) {
+            return reactiveStockSlots.put(id, delta);
+        }
+
+        return reactiveStockSlots
+                .take(id, -delta)
+                .flatMap(taken -> taken
+                        ? Mono.<Void>empty()
+                        : Mono.error(new BookCantBeBorrowedException("Amount of books with id " + id + " is 0")));
+    }
+
+    private Mono<Void> updateBookRow(
+            BookRow row,
+            BookDTO dto
+    ) {
+        BookDTO book = row.book();
+        String title = StringUtils.hasText(dto.title()) ? dto.title() : book.title();
+        String author = StringUtils.hasText(dto.author()) ? dto.author() : book.author();
+
+        if (row.sharded() || dto.amount() == null) {
+            return databaseClient
+                    .sql("update books set title = :title, author = :author where id = :id")
+                    .bind("title", title)
+                    .bind("author", author)
+                    .bind("id", book.id())
+                    .then();
+        }
+
+        return databaseClient
+                .sql("update books set title = :title, author = :author, amount = :amount where id = :id")
+                .bind("title", title)
+                .bind("author", author)
+                .bind("amount", dto.amount())
+                .bind("id", book.id())
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteBook(
+            Long id
+    ) {
+        Mono<Void> delete = databaseClient
+                .sql("select exists(select 1 from loans where book_id = b.id) as borrowed from books b where b.id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE.equals(row.get("borrowed", Boolean.class)))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Book not found by id " + id)))
+                .flatMap(borrowed -> borrowed
+                        ? Mono.error(new CantBeDeletedException("Book can't be deleted because it was borrowed by member"))
+                        : deleteBookRows(id));
+
+        return delete.as(transactionalOperator::transactional);
+    }
+
+    private Mono<Void> deleteBookRows(
+            Long id
+    ) {
+        return databaseClient.sql("delete from branch_stocks where book_id = :id").bind("id", id).then()
+                .then(databaseClient.sql("delete from stock_slots where book_id = :id").bind("id", id).then())
+                .then(databaseClient.sql("delete from books where id = :id").bind("id", id).then());
+    }
+}
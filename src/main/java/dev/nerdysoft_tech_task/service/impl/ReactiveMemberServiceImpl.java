@@ -0,0 +1,370 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
+import dev.nerdysoft_tech_task.exception.CantBeDeletedException;
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.repository.BranchStockQueries;
+import dev.nerdysoft_tech_task.service.ReactiveMemberService;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same behaviour as {@link MemberServiceImpl}, written as plain SQL over R2DBC
+ * for the {@code reactive} profile. Borrowing takes the copy with one
+ * conditional UPDATE instead of rebuilding the book.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveMemberServiceImpl implements ReactiveMemberService {
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "membershipDate", "membership_date");
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ReactiveStockSlots reactiveStockSlots;
+    private final MemberWriteBehind memberWriteBehind;
+
+    @Value("${custom.validation.bookBorrowLimit:10}")
+    private Integer borrowLimit;
+
+    @Value("${custom.loan.period:14d}")
+    private Duration loanPeriod;
+
+    private static MemberDTO toMemberDTO(
+            Readable row
+    ) {
+        return new MemberDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.get("membership_date", LocalDateTime.class)));
+    }
+
+    @Override
+    public Mono<MemberDTO> findById(
+            Long id
+    ) {
+        return databaseClient
+                .sql("select id, name, membership_date from members where id = :id")
+                .bind("id", id)
+                .map(ReactiveMemberServiceImpl::toMemberDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Member not found by id " + id)));
+    }
+
+    @Override
+    public Flux<BookDTO> findMemberBooks(
+            Long id
+    ) {
+        return checkIfMemberExists(id)
+                .thenMany(Flux.defer(() -> findBorrowedBooks(id)));
+    }
+
+    private Mono<Void> checkIfMemberExists(
+            Long id
+    ) {
+        return databaseClient
+                .sql("select exists(select 1 from members where id = :id) as found")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE.equals(row.get("found", Boolean.class)))
+                .one()
+                .flatMap(found -> found
+                        ? Mono.<Void>empty()
+                        : Mono.error(new NotFoundException("Member not found by id " + id)));
+    }
+
+    private Flux<BookDTO> findBorrowedBooks(
+            Long memberId
+    ) {
+        return databaseClient
+                .sql("""
+                        select %s
+                        from loans l
+                        join books b on b.id = l.book_id
+                        where l.member_id = :memberId
+                        """.formatted(ReactiveBookServiceImpl.BOOK_COLUMNS))
+                .bind("memberId", memberId)
+                .map(ReactiveBookServiceImpl::toBookDTO)
+                .all();
+    }
+
+    @Override
+    public Mono<Page<MemberDTO>> findAll(
+            String name,
+            Pageable pageable
+    ) {
+        boolean byName = StringUtils.hasText(name);
+        String where = byName ? " where name = :name" : "";
+
+        DatabaseClient.GenericExecuteSpec contentSpec = databaseClient
+                .sql("select id, name, membership_date from members" + where + ReactiveSql.orderByAndPage(pageable, SORT_COLUMNS));
+        DatabaseClient.GenericExecuteSpec totalSpec = databaseClient
+                .sql("select count(*) from members" + where);
+        if (byName) {
+            contentSpec = contentSpec.bind("name", name);
+            totalSpec = totalSpec.bind("name", name);
+        }
+
+        Mono<List<MemberDTO>> content = contentSpec
+                .map(ReactiveMemberServiceImpl::toMemberDTO)
+                .all()
+                .collectList();
+        Mono<Long> total = totalSpec
+                .map(row -> row.get(0, Long.class))
+                .one();
+
+        return Mono.zip(content, total, (members, count) -> new PageImpl<>(members, pageable, count));
+    }
+
+    @Override
+    public Mono<MemberDTO> createMember(
+            MemberDTO dto
+    ) {
+        LocalDateTime membershipDate = LocalDateTime.now();
+
+        return databaseClient
+                .sql("insert into members (name, membership_date) values (:name, :membershipDate) returning id")
+                .bind("name", dto.name())
+                .bind("membershipDate", membershipDate)
+                .map(row -> new MemberDTO(
+                        row.get("id", Long.class),
+                        dto.name(),
+                        DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(membershipDate)))
+                .one();
+    }
+
+    /**
+     * The pending name is discarded only once the member is locked, so not for
+     * an unknown member, and a flush of that name commits first or skips it.
+     */
+    @Override
+    public Mono<MemberDTO> updateMember(
+            Long id,
+            MemberDTO dto
+    ) {
+        Mono<MemberDTO> update = lockMember(id)
+                .then(Mono.fromRunnable(() -> memberWriteBehind.discard(id)))
+                .then(Mono.defer(() -> StringUtils.hasText(dto.name())
+                        ? databaseClient
+                                .sql("update members set name = :name where id = :id returning id, name, membership_date")
+                                .bind("name", dto.name())
+                                .bind("id", id)
+                                .map(ReactiveMemberServiceImpl::toMemberDTO)
+                                .one()
+                        : findById(id)));
+
+        return update.as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> updateMemberAsync(
+            Long id,
+            MemberDTO dto
+    ) {
+        return Mono.fromRunnable(() -> {
+            if (StringUtils.hasText(dto.name())) {
+                memberWriteBehind.enqueue(id, dto.name());
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteMember(
+            Long id
+    ) {
+        Mono<Void> delete = databaseClient
+                .sql("select exists(select 1 from loans where member_id = m.id) as borrowing from members m where m.id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE.equals(row.get("borrowing", Boolean.class)))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Member not found by id " + id)))
+                .flatMap(borrowing -> {
+                    if (borrowing) {
+                        return Mono.error(new CantBeDeletedException("Member can't be deleted because he hasn't return all borrowed books yet"));
+                    }
+                    memberWriteBehind.discard(id);
+                    return databaseClient
+                            .sql("delete from members where id = :id")
+                            .bind("id", id)
+                            .then();
+                });
+
+        return delete.as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Toggles the loan of the book like {@link MemberServiceImpl#updateBorrowedBooks},
+     * including the lock of the member row that serializes toggles of one member.
+     */
+    @Override
+    public Flux<BookDTO> updateBorrowedBooks(
+            Long memberId,
+            Long bookId,
+            Long branchId
+    ) {
+        Mono<Void> toggle = lockMember(memberId)
+                .then(checkIfBookExists(bookId))
+                .then(checkIfBranchExists(branchId))
+                .then(databaseClient
+                        .sql("delete from loans where member_id = :memberId and book_id = :bookId")
+                        .bind("memberId", memberId)
+                        .bind("bookId", bookId)
+                        .fetch()
+                        .rowsUpdated())
+                .flatMap(deletedLoans -> deletedLoans > 0
+                        ? returnBook(bookId, branchId)
+                        : borrowBook(memberId, bookId, branchId));
+
+        return toggle
+                .thenMany(Flux.defer(() -> findBorrowedBooks(memberId)))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Must run inside a transaction; throws {@link NotFoundException} for an unknown member.
+     */
+    private Mono<Void> lockMember(
+            Long id
+    ) {
+        return databaseClient
+                .sql("select id from members where id = :id for update")
+                .bind("id", id)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Member not found by id " + id)))
+                .then();
+    }
+
+    private Mono<Void> checkIfBookExists(
+            Long bookId
+    ) {
+        return databaseClient
+                .sql("select exists(select 1 from books where id = :id) as found")
+                .bind("id", bookId)
+                .map(row -> Boolean.TRUE.equals(row.get("found", Boolean.class)))
+                .one()
+                .flatMap(found -> found
+                        ? Mono.<Void>empty()
+                        : Mono.error(new NotFoundException("Book not found by id " + bookId)));
+    }
+
+    private Mono<Void> checkIfBranchExists(
+            Long branchId
+    ) {
+        if (branchId == null) {
+            return Mono.empty();
+        }
+
+        return databaseClient
+                .sql("select exists(select 1 from branches where id = :id) as found")
+                .bind("id", branchId)
+                .map(row -> Boolean.TRUE.equals(row.get("found", Boolean.class)))
+                .one()
+                .flatMap(found -> found
+                        ? Mono.<Void>empty()
+                        : Mono.error(new NotFoundException("Branch not found by id " + branchId)));
+    }
+
+    private Mono<Void> returnBook(
+            Long bookId,
+            Long branchId
+    ) {
+        if (branchId == null) {
+            return reactiveStockSlots.put(bookId, 1);
+        }
+
+        return databaseClient
+                .sql(BranchStockQueries.INCREASE_AMOUNT)
+                .bind("bookId", bookId)
+                .bind("branchId", branchId)
+                .bind("amount", 1)
+                .then();
+    }
+
+    private Mono<Void> borrowBook(
+            Long memberId,
+            Long bookId,
+            Long branchId
+    ) {
+        return checkIfMemberBorrowedMaxAllowedAmountOfBooks(memberId)
+                .then(takeCopy(bookId, branchId))
+                .then(Mono.defer(() -> {
+                    LocalDateTime borrowedAt = LocalDateTime.now();
+
+                    return databaseClient
+                            .sql("""
+                                    insert into loans (member_id, book_id, borrowed_at, due_at, overdue)
+                                    values (:memberId, :bookId, :borrowedAt, :dueAt, false)
+                                    """)
+                            .bind("memberId", memberId)
+                            .bind("bookId", bookId)
+                            .bind("borrowedAt", borrowedAt)
+                            .bind("dueAt", borrowedAt.plus(loanPeriod))
+                            .then();
+                }));
+    }
+
+    private Mono<Void> checkIfMemberBorrowedMaxAllowedAmountOfBooks(
+            Long memberId
+    ) {
+        return databaseClient
+                .sql("select count(*) from loans where member_id = :memberId")
+                .bind("memberId", memberId)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(borrowed -> borrowed >= borrowLimit
+                        ? Mono.error(new BookCantBeBorrowedException("Member with id " + memberId +
+                                " borrowed max allowed (" + borrowLimit + ") amount of books"))
+                        : Mono.empty());
+    }
+
+    private Mono<Void> takeCopy(
+            Long bookId,
+            Long branchId
+    ) {
+        if (branchId == null) {
+            return reactiveStockSlots
+                    .take(bookId, 1)
+                    .flatMap(taken -> taken
+                            ? Mono.<Void>empty()
+                            : Mono.error(new BookCantBeBorrowedException("Amount of books with id " + bookId + " is 0")));
+        }
+
+        return databaseClient
+                .sql("""
+                        update branch_stocks
+                        set amount = amount - 1
+                        where book_id = :bookId and branch_id = :branchId and amount >= 1
+                        """)
+                .bind("bookId", bookId)
+                .bind("branchId", branchId)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated > 0
+                        ? Mono.<Void>empty()
+                        : Mono.error(new BookCantBeBorrowedException("Amount of books with id " + bookId +
+                                " in branch with id " + branchId + " is 0")));
+    }
+}
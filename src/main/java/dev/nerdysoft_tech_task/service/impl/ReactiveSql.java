@@ -0,0 +1,42 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+final class ReactiveSql {
+
+    private ReactiveSql() {
+    }
+
+    /**
+     * Builds the {@code order by ... limit ... offset ...} tail of a page query.
+     * Only properties listed in {@code columns} can be sorted by.
+     */
+    static String orderByAndPage(
+            Pageable pageable,
+            Map<String, String> columns
+    ) {
+        StringBuilder sql = new StringBuilder();
+
+        if (pageable.getSort().isSorted()) {
+            StringJoiner orders = new StringJoiner(", ", " order by ", "");
+            for (Sort.Order order : pageable.getSort()) {
+                String column = columns.get(order.getProperty());
+                if (column == null) {
+                    throw new IllegalArgumentException("Can't sort by " + order.getProperty());
+                }
+                orders.add(column + (order.isAscending() ? " asc" : " desc"));
+            }
+            sql.append(orders);
+        }
+
+        if (pageable.isPaged()) {
+            sql.append(" limit ").append(pageable.getPageSize())
+                    .append(" offset ").append(pageable.getOffset());
+        }
+        return sql.toString();
+    }
+}
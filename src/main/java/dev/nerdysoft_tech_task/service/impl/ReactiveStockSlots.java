@@ -0,0 +1,129 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.repository.StockSlotQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of {@link StockSlotServiceImpl#take} and {@link StockSlotServiceImpl#put}:
+ * central stock is taken from {@code books.amount} first, then one copy at a
+ * time from random stock slots, all or nothing; copies are put back into a random
+ * slot, or into {@code books.amount} when the book has no slots. Slot statements
+ * are shared with {@link StockSlotQueries}. Must run inside a transaction.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+class ReactiveStockSlots {
+
+    private static final String DECREASE_BOOK_AMOUNT = """
+            update books
+            set amount = amount - :amount
+            where id = :bookId and amount >= :amount
+            """;
+
+    private static final String INCREASE_BOOK_AMOUNT = """
+            update books
+            set amount = amount + :amount
+            where id = :bookId
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    Mono<Boolean> take(
+            Long bookId,
+            int amount
+    ) {
+        return update(DECREASE_BOOK_AMOUNT, bookId, amount)
+                .flatMap(updated -> updated
+                        ? Mono.just(true)
+                        : takeFromSlots(bookId, amount, 0));
+    }
+
+    private Mono<Boolean> takeFromSlots(
+            Long bookId,
+            int amount,
+            int taken
+    ) {
+        if (taken == amount) {
+            return Mono.just(true);
+        }
+        return takeOneFromSlots(bookId)
+                .flatMap(took -> {
+                    if (took) {
+                        return takeFromSlots(bookId, amount, taken + 1);
+                    }
+                    return taken > 0
+                            ? put(bookId, taken).thenReturn(false)
+                            : Mono.just(false);
+                });
+    }
+
+    private Mono<Boolean> takeOneFromSlots(
+            Long bookId
+    ) {
+        return update(StockSlotQueries.DECREASE_RANDOM_UNLOCKED_SLOT, bookId)
+                .flatMap(updated -> updated
+                        ? Mono.just(true)
+                        : update(StockSlotQueries.DECREASE_RANDOM_SLOT, bookId))
+                .flatMap(updated -> updated
+                        ? Mono.just(true)
+                        : hasNonEmptySlot(bookId).flatMap(retry -> retry
+                                ? takeOneFromSlots(bookId)
+                                : Mono.just(false)));
+    }
+
+    Mono<Void> put(
+            Long bookId,
+            int amount
+    ) {
+        return update(StockSlotQueries.INCREASE_RANDOM_UNLOCKED_SLOT, bookId, amount)
+                .flatMap(updated -> updated
+                        ? Mono.just(true)
+                        : update(StockSlotQueries.INCREASE_RANDOM_SLOT, bookId, amount))
+                .flatMap(updated -> updated
+                        ? Mono.just(true)
+                        : update(INCREASE_BOOK_AMOUNT, bookId, amount))
+                .then();
+    }
+
+    private Mono<Boolean> hasNonEmptySlot(
+            Long bookId
+    ) {
+        return databaseClient
+                .sql(StockSlotQueries.HAS_NON_EMPTY_SLOT)
+                .bind("bookId", bookId)
+                .map(row -> row.get(0, Boolean.class))
+                .one()
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Boolean> update(
+            String sql,
+            Long bookId
+    ) {
+        return databaseClient
+                .sql(sql)
+                .bind("bookId", bookId)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    private Mono<Boolean> update(
+            String sql,
+            Long bookId,
+            int amount
+    ) {
+        return databaseClient
+                .sql(sql)
+                .bind("bookId", bookId)
+                .bind("amount", amount)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+}
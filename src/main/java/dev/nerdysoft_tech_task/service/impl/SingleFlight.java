@@ -0,0 +1,108 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads: while a call for an operation and key
+ * is in flight, callers with the same operation and key wait for it and get
+ * its result or exception instead of querying the database themselves.
+ * <p>
+ * Only calls already in flight are joined, nothing is cached, so a result is at
+ * most one query older than a fresh read. Results are shared between callers
+ * and must not be modified. Calls are counted in {@code singleflight.calls}
+ * with {@code result} {@code executed} or {@code collapsed}.
+ */
+@Component
+@RequiredArgsConstructor
+class SingleFlight {
+
+    private record CallKey(
+            String operation,
+            Object key
+    ) {
+    }
+
+    private record CallCounters(
+            Counter executed,
+            Counter collapsed
+    ) {
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<CallKey, CompletableFuture<Object>> inFlightCalls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CallCounters> counters = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <V> V execute(
+            String operation,
+            Object key,
+            Supplier<V> call
+    ) {
+        CallKey callKey = new CallKey(operation, key);
+        CompletableFuture<Object> ownCall = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightCall = inFlightCalls.putIfAbsent(callKey, ownCall);
+        CallCounters callCounters = counters.computeIfAbsent(operation, this::registerCounters);
+
+        if (inFlightCall != null) {
+            callCounters.collapsed().increment();
+            return (V) await(inFlightCall);
+        }
+
+        callCounters.executed().increment();
+        try {
+            V result = call.get();
+            ownCall.complete(result);
+            return result;
+        } catch (Throwable e) {
+            ownCall.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightCalls.remove(callKey, ownCall);
+        }
+    }
+
+    private static Object await(
+            CompletableFuture<Object> inFlightCall
+    ) {
+        try {
+            return inFlightCall.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CallCounters registerCounters(
+            String operation
+    ) {
+        return new CallCounters(
+                registerCounter(operation, "executed"),
+                registerCounter(operation, "collapsed"));
+    }
+
+    private Counter registerCounter(
+            String operation,
+            String result
+    ) {
+        return Counter
+                .builder("singleflight.calls")
+                .description("Reads executed or collapsed into a concurrent identical read")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
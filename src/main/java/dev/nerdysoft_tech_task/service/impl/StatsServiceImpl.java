@@ -0,0 +1,67 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.AvailabilityStatsDTO;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.BranchStockRepository;
+import dev.nerdysoft_tech_task.repository.LoanRepository;
+import dev.nerdysoft_tech_task.repository.StockSlotRepository;
+import dev.nerdysoft_tech_task.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+
+    private final AvailabilityCounters availabilityCounters;
+    private final BookRepository bookRepository;
+    private final StockSlotRepository stockSlotRepository;
+    private final BranchStockRepository branchStockRepository;
+    private final LoanRepository loanRepository;
+
+    @Override
+    public AvailabilityStatsDTO findAvailabilityStats() {
+        return availabilityCounters.snapshot();
+    }
+
+    /**
+     * Recounts the totals with full scans in one snapshot, on startup and then
+     * every {@code reconcileDelay}, and logs how far the counters drifted.
+     * <p>
+     * The snapshot starts with the first statement and the counters are read
+     * right after it, so changes applied to them later are kept on top of the
+     * count. The result is not exact: a change committed between those two
+     * reads, or committed but not yet applied by its {@code afterCommit}, is
+     * counted in one of them only. The totals can be off by such changes until
+     * the next reconcile, at most one {@code reconcileDelay}.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${custom.stats.reconcileDelay:PT5M}")
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void reconcileAvailabilityStats() {
+        boolean reconciledBefore = availabilityCounters.isReconciled();
+
+        long copiesOnLoan = loanRepository.count();
+        AvailabilityCounters.Totals start = availabilityCounters.current();
+        AvailabilityCounters.Totals counted = new AvailabilityCounters.Totals(
+                bookRepository.count(),
+                bookRepository.sumAmount()
+                        + stockSlotRepository.sumAmount()
+                        + branchStockRepository.sumAmount()
+                        + copiesOnLoan,
+                copiesOnLoan,
+                loanRepository.countMembers());
+
+        availabilityCounters.reconcile(start, counted);
+
+        AvailabilityCounters.Totals drift = start.minus(counted);
+        if (reconciledBefore && !drift.equals(AvailabilityCounters.Totals.ZERO)) {
+            log.info("Availability counters drifted by {}", drift);
+        }
+    }
+}
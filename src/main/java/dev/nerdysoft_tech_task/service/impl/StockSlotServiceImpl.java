@@ -0,0 +1,164 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.model.StockSlot;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.StockSlotRepository;
+import dev.nerdysoft_tech_task.service.StockSlotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Central stock of a book is {@code books.amount} plus the amounts of its
+ * stock slots. Books without slots behave exactly as before; for sharded
+ * books {@code books.amount} stays at 0 and every borrow locks only one
+ * randomly chosen slot, skipping slots locked by other transactions.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockSlotServiceImpl implements StockSlotService {
+
+    private final BookRepository bookRepository;
+    private final StockSlotRepository stockSlotRepository;
+
+    /**
+     * Takes all {@code amount} copies or none: when the slots run dry half-way,
+     * the copies already taken are put back before returning {@code false}.
+     */
+    @Override
+    @Transactional
+    public boolean take(
+            Long bookId,
+            int amount
+    ) {
+        if (bookRepository.decreaseAmount(bookId, amount) > 0) {
+            return true;
+        }
+
+        for (int taken = 0; taken < amount; taken++) {
+            if (!takeOneFromSlots(bookId)) {
+                if (taken > 0) {
+                    put(bookId, taken);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A waiting pick yields no row when the slot it waited for was drained
+     * meanwhile, so it is retried for as long as any slot still has copies.
+     */
+    private boolean takeOneFromSlots(
+            Long bookId
+    ) {
+        do {
+            if (stockSlotRepository.decreaseRandomUnlockedSlot(bookId) > 0
+                    || stockSlotRepository.decreaseRandomSlot(bookId) > 0) {
+                return true;
+            }
+        } while (stockSlotRepository.hasNonEmptySlot(bookId));
+        return false;
+    }
+
+    /**
+     * Books without slots are updated with one statement; for sharded books
+     * that statement matches no row and the copies go to a random slot.
+     */
+    @Override
+    @Transactional
+    public void put(
+            Long bookId,
+            int amount
+    ) {
+        if (bookRepository.increaseUnshardedAmount(bookId, amount) > 0) {
+            return;
+        }
+
+        if (stockSlotRepository.increaseRandomUnlockedSlot(bookId, amount) > 0
+                || stockSlotRepository.increaseRandomSlot(bookId, amount) > 0) {
+            return;
+        }
+
+        bookRepository.increaseAmount(bookId, amount);
+    }
+
+    @Override
+    public long sumSlotsAmount(
+            Long bookId
+    ) {
+        return stockSlotRepository.sumAmountByBookId(bookId);
+    }
+
+    /**
+     * Moves {@code books.amount} into {@code slots} slots. For an already
+     * sharded book only the missing empty slots are added.
+     */
+    @Override
+    @Transactional
+    public void enableSlots(
+            Long bookId,
+            int slots
+    ) {
+        Book book = bookRepository
+                .findByIdForUpdate(bookId)
+                .orElseThrow(() -> new NotFoundException("Book not found by id " + bookId));
+
+        int existingSlots = (int) stockSlotRepository.countByBookId(bookId);
+        if (existingSlots >= slots) {
+            return;
+        }
+
+        int amountToSpread = book.getAmount();
+        int newSlots = slots - existingSlots;
+
+        List<StockSlot> stockSlots = new ArrayList<>(newSlots);
+        for (int i = 0; i < newSlots; i++) {
+            int slotAmount = amountToSpread / newSlots + (i < amountToSpread % newSlots ? 1 : 0);
+            stockSlots.add(StockSlot
+                    .builder()
+                    .book(book)
+                    .slot(existingSlots + i)
+                    .amount(slotAmount)
+                    .build());
+        }
+        stockSlotRepository.saveAll(stockSlots);
+
+        book.setAmount(0);
+        book.setSharded(true);
+        book.setSlotsAmount((int) stockSlotRepository.sumAmountByBookId(bookId));
+        bookRepository.save(book);
+    }
+
+    @Override
+    @Transactional
+    public void disableSlots(
+            Long bookId
+    ) {
+        Book book = bookRepository
+                .findByIdForUpdate(bookId)
+                .orElseThrow(() -> new NotFoundException("Book not found by id " + bookId));
+
+        if (!book.isSharded()) {
+            return;
+        }
+
+        List<StockSlot> stockSlots = stockSlotRepository.findAllByBookId(bookId);
+        int slotsAmount = stockSlots
+                .stream()
+                .mapToInt(StockSlot::getAmount)
+                .sum();
+        stockSlotRepository.deleteAllInBatch(stockSlots);
+
+        book.setAmount(book.getAmount() + slotsAmount);
+        book.setSharded(false);
+        book.setSlotsAmount(0);
+        bookRepository.save(book);
+    }
+}
@@ -0,0 +1,119 @@
+package dev.nerdysoft_tech_task.sqlstats;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What Hibernate did for the current request. Bound to the request thread by
+ * {@link SqlStatsFilter}; with open session in view every session of a request
+ * runs on that thread, so plain fields are enough.
+ */
+@Getter
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final int maxStatements;
+    private final List<String> statements = new ArrayList<>();
+
+    private int statementCount;
+    private long statementNanos;
+    private int entitiesLoaded;
+    private int collectionsInitialized;
+    private int cacheHits;
+    private int cacheMisses;
+    private int flushes;
+    private long flushNanos;
+
+    private long statementStartedAt;
+    private long flushStartedAt;
+
+    RequestSqlStats(
+            int maxStatements
+    ) {
+        this.maxStatements = maxStatements;
+    }
+
+    static RequestSqlStats begin(
+            int maxStatements
+    ) {
+        RequestSqlStats stats = new RequestSqlStats(maxStatements);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Stats of the request running on this thread, {@code null} outside of requests.
+     */
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared(
+            String sql
+    ) {
+        statementCount++;
+        if (statements.size() < maxStatements) {
+            statements.add(sql);
+        }
+    }
+
+    void statementStarted() {
+        statementStartedAt = System.nanoTime();
+    }
+
+    void statementEnded() {
+        statementNanos += System.nanoTime() - statementStartedAt;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    void collectionInitialized() {
+        collectionsInitialized++;
+    }
+
+    void cacheGet(
+            boolean hit
+    ) {
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+    }
+
+    void flushStarted() {
+        flushStartedAt = System.nanoTime();
+    }
+
+    void flushEnded() {
+        flushes++;
+        flushNanos += System.nanoTime() - flushStartedAt;
+    }
+
+    public Duration getStatementTime() {
+        return Duration.ofNanos(statementNanos);
+    }
+
+    public Duration getFlushTime() {
+        return Duration.ofNanos(flushNanos);
+    }
+
+    @Override
+    public String toString() {
+        return statementCount + " statements (" + getStatementTime().toMillis() + " ms), "
+                + entitiesLoaded + " entities loaded, "
+                + collectionsInitialized + " collections initialized, "
+                + cacheHits + " cache hits, " + cacheMisses + " cache misses, "
+                + flushes + " flushes (" + getFlushTime().toMillis() + " ms)";
+    }
+}
@@ -0,0 +1,109 @@
+package dev.nerdysoft_tech_task.sqlstats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Collects {@link RequestSqlStats} for every request, records them as
+ * {@code hibernate.request.*} meters tagged with method and uri pattern, and
+ * logs requests slower than {@code slowThreshold} or running at least
+ * {@code statementThreshold} statements together with their SQL.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowThreshold;
+    private final int statementThreshold;
+    private final int maxLoggedStatements;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin(maxLoggedStatements);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            report(request, stats, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private void report(
+            HttpServletRequest request,
+            RequestSqlStats stats,
+            Duration elapsed
+    ) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "method", request.getMethod(),
+                "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+
+        summary("hibernate.request.statements", tags, stats.getStatementCount());
+        summary("hibernate.request.entities.loaded", tags, stats.getEntitiesLoaded());
+        summary("hibernate.request.collections.initialized", tags, stats.getCollectionsInitialized());
+        summary("hibernate.request.cache.hits", tags, stats.getCacheHits());
+        Timer.builder("hibernate.request.statement.time")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatementTime());
+        Timer.builder("hibernate.request.flush.time")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getFlushTime());
+
+        if (elapsed.compareTo(slowThreshold) < 0 && stats.getStatementCount() < statementThreshold) {
+            log.debug("{} {} took {} ms: {}", request.getMethod(), request.getRequestURI(), elapsed.toMillis(), stats);
+            return;
+        }
+
+        meterRegistry.counter("hibernate.request.slow", tags).increment();
+        log.warn("Slow request {} {} took {} ms: {}{}",
+                request.getMethod(), request.getRequestURI(), elapsed.toMillis(), stats, formatStatements(stats));
+    }
+
+    private void summary(
+            String name,
+            Tags tags,
+            int value
+    ) {
+        DistributionSummary.builder(name)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(value);
+    }
+
+    private static String formatStatements(
+            RequestSqlStats stats
+    ) {
+        List<String> statements = stats.getStatements();
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < statements.size(); i++) {
+            sql.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(statements.get(i));
+        }
+        if (stats.getStatementCount() > statements.size()) {
+            sql.append(System.lineSeparator()).append("  ... ")
+                    .append(stats.getStatementCount() - statements.size()).append(" more");
+        }
+        return sql.toString();
+    }
+}
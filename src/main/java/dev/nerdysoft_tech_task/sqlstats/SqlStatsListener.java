@@ -0,0 +1,115 @@
+package dev.nerdysoft_tech_task.sqlstats;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Feeds {@link RequestSqlStats} of the current request from Hibernate callbacks:
+ * <ul>
+ *     <li>statement inspector - SQL of every statement</li>
+ *     <li>session events - statement execution, second level cache and flush times</li>
+ *     <li>load and collection events - entities loaded and lazy collections initialized</li>
+ * </ul>
+ * Stateless, so one instance serves all sessions; outside of requests every
+ * callback is a no-op.
+ */
+public class SqlStatsListener implements
+        StatementInspector,
+        SessionEventListener,
+        PostLoadEventListener,
+        InitializeCollectionEventListener,
+        Integrator
+{
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.statementPrepared(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.statementStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.statementEnded();
+        }
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.cacheGet(hit);
+        }
+    }
+
+    @Override
+    public void flushStart() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.flushStarted();
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.flushEnded();
+        }
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.entityLoaded();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.collectionInitialized();
+        }
+    }
+
+    @Override
+    public void integrate(
+            Metadata metadata,
+            BootstrapContext bootstrapContext,
+            SessionFactoryImplementor sessionFactory
+    ) {
+        EventListenerRegistry registry = sessionFactory
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void disintegrate(
+            SessionFactoryImplementor sessionFactory,
+            SessionFactoryServiceRegistry serviceRegistry
+    ) {
+    }
+}
@@ -0,0 +1,49 @@
+package dev.nerdysoft_tech_task.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Observes commits of the JPA transaction manager as {@code transaction.commit},
+ * a child of whatever is observed when the transaction ends (usually a service call).
+ * A commit starts and ends on the same thread and commits on one thread don't nest.
+ */
+@RequiredArgsConstructor
+public class CommitObservationListener implements TransactionExecutionListener {
+
+    private static final ThreadLocal<Observation> COMMIT = new ThreadLocal<>();
+
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public void beforeCommit(
+            TransactionExecution transaction
+    ) {
+        COMMIT.set(Observation
+                .createNotStarted("transaction.commit", observationRegistry)
+                .contextualName("commit")
+                .lowCardinalityKeyValue("readOnly", String.valueOf(transaction.isReadOnly()))
+                .start());
+    }
+
+    @Override
+    public void afterCommit(
+            TransactionExecution transaction,
+            @Nullable Throwable commitFailure
+    ) {
+        Observation observation = COMMIT.get();
+        if (observation == null) {
+            return;
+        }
+        COMMIT.remove();
+
+        if (commitFailure != null) {
+            observation.error(commitFailure);
+        }
+        observation.stop();
+    }
+}
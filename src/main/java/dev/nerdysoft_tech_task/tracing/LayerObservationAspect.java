@@ -0,0 +1,72 @@
+package dev.nerdysoft_tech_task.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Observes every public method of controllers, blocking services and
+ * repositories, so a request trace has one span per layer call, e.g.
+ * {@code book-controller.find-by-id > book-service-impl.find-by-id > book-repository.find-by-id}.
+ * <p>
+ * Runs outside of the transaction interceptor, so service spans include the
+ * commit (itself observed by {@link CommitObservationListener}).
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LayerObservationAspect {
+
+    static final String OBSERVATION_NAME = "layer.calls";
+
+    private final ObservationRegistry observationRegistry;
+
+    @Around("execution(public * dev.nerdysoft_tech_task.controller.*Controller.*(..))")
+    public Object observeController(
+            ProceedingJoinPoint joinPoint
+    ) throws Throwable {
+        return observe("controller", joinPoint.getSignature().getDeclaringType(), joinPoint);
+    }
+
+    @Around("execution(public * dev.nerdysoft_tech_task.service.impl.*ServiceImpl.*(..))"
+            + " && !within(dev.nerdysoft_tech_task.service.impl.Reactive*)")
+    public Object observeService(
+            ProceedingJoinPoint joinPoint
+    ) throws Throwable {
+        return observe("service", joinPoint.getSignature().getDeclaringType(), joinPoint);
+    }
+
+    /**
+     * Repositories are JDK proxies and most of their methods are declared by
+     * Spring Data interfaces, so the span is named after our repository interface.
+     */
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object observeRepository(
+            ProceedingJoinPoint joinPoint
+    ) throws Throwable {
+        return observe("repository", AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis())[0], joinPoint);
+    }
+
+    private Object observe(
+            String layer,
+            Class<?> type,
+            ProceedingJoinPoint joinPoint
+    ) throws Throwable {
+        String className = type.getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+
+        return Observation
+                .createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(className + '.' + methodName)
+                .lowCardinalityKeyValue("layer", layer)
+                .lowCardinalityKeyValue("class", className)
+                .lowCardinalityKeyValue("method", methodName)
+                .observeChecked((Observation.CheckedCallable<Object, Throwable>) joinPoint::proceed);
+    }
+}
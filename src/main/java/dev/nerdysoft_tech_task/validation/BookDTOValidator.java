@@ -0,0 +1,100 @@
+package dev.nerdysoft_tech_task.validation;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+
+/**
+ * Checks the constraints declared on {@link BookDTO}.
+ */
+@Component
+public class BookDTOValidator extends DTOValidator<BookDTO> {
+
+    public BookDTOValidator() {
+        super(BookDTO.class);
+    }
+
+    @Override
+    void validateDTO(
+            BookDTO dto,
+            Errors errors
+    ) {
+        String title = dto.title();
+        if (title != null && title.length() < 3) {
+            reject(errors, "title", title, "Size", "Min length is 3 characters");
+        }
+        if (title != null && !startsWithCapitalLetter(title)) {
+            reject(errors, "title", title, "Pattern", "Must start with capital letter");
+        }
+        if (!isNotBlank(title)) {
+            reject(errors, "title", title, "NotBlank", "Can't be blank");
+        }
+
+        String author = dto.author();
+        if (!isNotBlank(author)) {
+            reject(errors, "author", author, "NotBlank", "Can't be blank");
+        }
+        if (author != null && !isNameAndSurname(author)) {
+            reject(errors, "author", author, "Pattern",
+                    "Should contains two capital words with title and surname and space between");
+        }
+
+        Integer amount = dto.amount();
+        if (amount != null && amount < 0) {
+            reject(errors, "amount", amount, "PositiveOrZero", "Should be positive value");
+        }
+    }
+
+    /**
+     * Same as {@code ^[A-Z].*}: {@code .} does not match line terminators.
+     */
+    static boolean startsWithCapitalLetter(
+            String value
+    ) {
+        if (value.isEmpty() || !isUpperCase(value.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@code ^[A-Z][a-z]+ [A-Z][a-z]+$}.
+     */
+    static boolean isNameAndSurname(
+            String value
+    ) {
+        int space = value.indexOf(' ');
+        return space > 0
+                && isCapitalizedWord(value, 0, space)
+                && isCapitalizedWord(value, space + 1, value.length());
+    }
+
+    private static boolean isCapitalizedWord(
+            String value,
+            int from,
+            int to
+    ) {
+        if (to - from < 2 || !isUpperCase(value.charAt(from))) {
+            return false;
+        }
+        for (int i = from + 1; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUpperCase(
+            char c
+    ) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
@@ -0,0 +1,80 @@
+package dev.nerdysoft_tech_task.validation;
+
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.Validator;
+
+/**
+ * Base of the hand-written DTO validators. They replace Hibernate Validator
+ * for request bodies and bulk import, so checks run without reflection, and
+ * report the same fields, codes and messages as the constraint annotations
+ * on the DTO, which stay there for the API docs.
+ */
+abstract class DTOValidator<T> implements Validator {
+
+    private final Class<T> type;
+
+    DTOValidator(Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public boolean supports(
+            Class<?> clazz
+    ) {
+        return type.equals(clazz);
+    }
+
+    @Override
+    public void validate(
+            Object target,
+            Errors errors
+    ) {
+        validateDTO(type.cast(target), errors);
+    }
+
+    abstract void validateDTO(T dto, Errors errors);
+
+    /**
+     * DTOs are records, so rejected values are passed in directly
+     * instead of being read back through bean properties.
+     */
+    static void reject(
+            Errors errors,
+            String field,
+            Object value,
+            String code,
+            String message
+    ) {
+        if (errors instanceof BindingResult bindingResult) {
+            bindingResult.addError(new FieldError(
+                    errors.getObjectName(),
+                    errors.getNestedPath() + field,
+                    value,
+                    false,
+                    new String[]{code},
+                    null,
+                    message));
+        } else {
+            errors.rejectValue(field, code, message);
+        }
+    }
+
+    /**
+     * Same as {@code @NotBlank}: not null and not only characters up to a space.
+     */
+    static boolean isNotBlank(
+            String value
+    ) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
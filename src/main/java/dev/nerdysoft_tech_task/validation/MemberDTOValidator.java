@@ -0,0 +1,26 @@
+package dev.nerdysoft_tech_task.validation;
+
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+
+/**
+ * Checks the constraints declared on {@link MemberDTO}.
+ */
+@Component
+public class MemberDTOValidator extends DTOValidator<MemberDTO> {
+
+    public MemberDTOValidator() {
+        super(MemberDTO.class);
+    }
+
+    @Override
+    void validateDTO(
+            MemberDTO dto,
+            Errors errors
+    ) {
+        if (!isNotBlank(dto.name())) {
+            reject(errors, "name", dto.name(), "NotBlank", "Can't be blank");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import dev.nerdysoft_tech_task.NerdySoftTechTaskApplication;
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import dev.nerdysoft_tech_task.mapper.BookMapper;
+import dev.nerdysoft_tech_task.model.Loan;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.LoanRepository;
+import dev.nerdysoft_tech_task.repository.MemberRepository;
+import dev.nerdysoft_tech_task.service.BookService;
+import dev.nerdysoft_tech_task.service.MemberService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One borrow or return of a central copy, called on the services without HTTP.
+ * {@code legacy} repeats what {@code MemberServiceImpl.updateBorrowedBooks} did
+ * before: load the book as a DTO, rebuild it with the amount +-1 and save it
+ * through {@code BookService.updateBook}; {@code current} changes the stock
+ * with one atomic update on the book id.
+ * <p>
+ * Needs the PostgreSQL database from {@code application.yml};
+ * run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="BorrowPathBenchmark -prof gc"}
+ * and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BorrowPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MemberService memberService;
+    private BookService bookService;
+    private MemberRepository memberRepository;
+    private BookRepository bookRepository;
+    private LoanRepository loanRepository;
+    private BookMapper bookMapper;
+    private TransactionTemplate transactionTemplate;
+
+    private long memberId;
+    private long bookId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(NerdySoftTechTaskApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--custom.stock.autoSlotsEnabled=false",
+                        "--custom.tracing.layers=false",
+                        "--custom.sqlStats.enabled=false",
+                        "--logging.level.root=WARN");
+
+        memberService = context.getBean(MemberService.class);
+        bookService = context.getBean(BookService.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        bookRepository = context.getBean(BookRepository.class);
+        loanRepository = context.getBean(LoanRepository.class);
+        bookMapper = context.getBean(BookMapper.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        memberId = memberService
+                .createMember(new MemberDTO(null, "Borrow Bench", null))
+                .id();
+        BookDTO book = bookService.createBook(BookDTO
+                .builder()
+                .title("Borrow Bench " + System.nanoTime())
+                .author("Borrow Bench")
+                .build());
+        bookId = book.id();
+        bookService.updateBook(bookId, BookDTO.builder().amount(1_000_000).build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> loanRepository.deleteByMemberIdAndBookId(memberId, bookId));
+        memberService.deleteMember(memberId);
+        bookService.deleteBook(bookId);
+        context.close();
+    }
+
+    @Benchmark
+    public Set<BookDTO> current() {
+        return memberService.updateBorrowedBooks(memberId, bookId, null);
+    }
+
+    @Benchmark
+    public Set<BookDTO> legacy() {
+        return transactionTemplate.execute(status -> {
+            if (!memberRepository.existsById(memberId)) {
+                throw new IllegalStateException("No member " + memberId);
+            }
+
+            BookDTO bookDto = bookService.findById(bookId);
+
+            if (loanRepository.deleteByMemberIdAndBookId(memberId, bookId) > 0) {
+                updateAmount(bookDto, bookDto.amount() + 1);
+            } else {
+                if (bookDto.amount() == 0 || loanRepository.countByMemberId(memberId) >= 10) {
+                    throw new IllegalStateException("Book " + bookId + " can't be borrowed");
+                }
+                updateAmount(bookDto, bookDto.amount() - 1);
+
+                LocalDateTime borrowedAt = LocalDateTime.now();
+                loanRepository.save(Loan
+                        .builder()
+                        .member(memberRepository.getReferenceById(memberId))
+                        .book(bookRepository.getReferenceById(bookId))
+                        .borrowedAt(borrowedAt)
+                        .dueAt(borrowedAt.plusDays(14))
+                        .overdue(false)
+                        .build());
+            }
+
+            return loanRepository
+                    .findBorrowedBooksByMemberId(memberId)
+                    .stream()
+                    .map(bookMapper::toDTO)
+                    .collect(Collectors.toSet());
+        });
+    }
+
+    private void updateAmount(
+            BookDTO bookDto,
+            int amount
+    ) {
+        BookDTO updatedBookDto = BookDTO
+                .builder()
+                .id(bookDto.id())
+                .title(bookDto.title())
+                .author(bookDto.author())
+                .amount(amount)
+                .build();
+
+        bookService.updateBook(updatedBookDto.id(), updatedBookDto);
+    }
+}
@@ -0,0 +1,93 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import dev.nerdysoft_tech_task.controller.RestExceptionHandler;
+import dev.nerdysoft_tech_task.dto.ErrorDTO;
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import io.micrometer.tracing.Tracer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one 404 response: creating the exception {@code depth} frames deep
+ * and building the body. {@code legacy} repeats what the handler did before
+ * (stack trace, Lombok builders, {@code WebRequest.getDescription}).
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="ErrorPathBenchmark -prof gc"}
+ * and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"64"})
+    private int depth;
+
+    @Param({"false", "true"})
+    private boolean problemDetails;
+
+    private RestExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private WebRequest webRequest;
+
+    @Setup
+    public void setUp() {
+        handler = new RestExceptionHandler(new StaticListableBeanFactory().getBeanProvider(Tracer.class));
+        ReflectionTestUtils.setField(handler, "problemDetails", problemDetails);
+        request = new MockHttpServletRequest("GET", "/api/v1/books/42");
+        webRequest = new ServletWebRequest(request);
+    }
+
+    @Benchmark
+    public Object legacy() {
+        RuntimeException e = createAtDepth(depth, true);
+
+        Set<ErrorDTO.ErrorDetail> details = Set.of(
+                ErrorDTO.ErrorDetail
+                        .builder()
+                        .value(null)
+                        .message(e.getMessage())
+                        .build());
+
+        return ErrorDTO
+                .builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.name())
+                .path(webRequest.getDescription(false).replace("uri=", ""))
+                .details(details)
+                .build();
+    }
+
+    @Benchmark
+    public Object current() {
+        NotFoundException e = (NotFoundException) createAtDepth(depth, false);
+
+        return handler.notFoundException(e, request);
+    }
+
+    private static RuntimeException createAtDepth(
+            int depth,
+            boolean withStackTrace
+    ) {
+        if (depth > 0) {
+            return createAtDepth(depth - 1, withStackTrace);
+        }
+
+        return withStackTrace
+                ? new RuntimeException("Book not found by id 42")
+                : new NotFoundException("Book not found by id 42");
+    }
+}
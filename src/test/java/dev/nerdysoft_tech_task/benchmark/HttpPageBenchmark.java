@@ -0,0 +1,87 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and bytes on the wire of {@code GET /books?size=1000} against a
+ * running application, with and without gzip, over HTTP/1.1 and h2c.
+ * {@code identity} over {@code HTTP_1_1} is the uncompressed baseline.
+ * <p>
+ * Start the application with at least 1000 books and
+ * {@code --custom.rateLimit.enabled=false}, then run
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=HttpPageBenchmark}.
+ * Body size per request is {@code bytes} divided by {@code requests} in the results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class HttpPageBenchmark {
+
+    private static final String URL = System.getProperty("benchmark.baseUrl", "http://localhost:8080/api/v1");
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    private HttpClient.Version version;
+
+    @Param({"1000"})
+    private int pageSize;
+
+    private HttpClient client;
+    private HttpRequest request;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Wire {
+
+        public long bytes;
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            requests = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        client = HttpClient.newBuilder()
+                .version(version)
+                .build();
+        request = HttpRequest.newBuilder(URI.create(URL + "/books?size=" + pageSize))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", encoding)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public int getPage(
+            Wire wire
+    ) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /books returned " + response.statusCode());
+        }
+
+        wire.bytes += response.body().length;
+        wire.requests++;
+        return response.body().length;
+    }
+}
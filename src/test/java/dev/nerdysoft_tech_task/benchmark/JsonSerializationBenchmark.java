@@ -0,0 +1,67 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.json.DTOSerializersModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of one page of books (GET /books) by Jackson's reflective
+ * serializers versus {@link DTOSerializersModule}, as JSON and as CBOR.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JsonSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private PagedModel<BookDTO> page;
+    private ObjectMapper reflective;
+    private ObjectMapper streaming;
+    private ObjectMapper cbor;
+
+    @Setup
+    public void setUp() {
+        List<BookDTO> books = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            books.add(new BookDTO((long) i, "The Great Gatsby " + i, "Francis Fitzgerald", i % 7));
+        }
+        page = new PagedModel<>(new PageImpl<>(books, PageRequest.of(0, pageSize), 10_000));
+
+        reflective = Jackson2ObjectMapperBuilder.json().build();
+        streaming = Jackson2ObjectMapperBuilder.json().modulesToInstall(new DTOSerializersModule()).build();
+        cbor = streaming.copyWith(new CBORFactory());
+    }
+
+    @Benchmark
+    public byte[] reflective() throws JsonProcessingException {
+        return reflective.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] streaming() throws JsonProcessingException {
+        return streaming.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws JsonProcessingException {
+        return cbor.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,111 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import dev.nerdysoft_tech_task.NerdySoftTechTaskApplication;
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import dev.nerdysoft_tech_task.mapper.BookMapper;
+import dev.nerdysoft_tech_task.mapper.MemberMapper;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.BookSpecifications;
+import dev.nerdysoft_tech_task.repository.MemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One 1000-row page of books and of members, read as managed entities and
+ * mapped ({@code *Entities}, what {@code findAll} did before) or selected
+ * straight into DTOs / rows ({@code *Projection}, what it does now).
+ * <p>
+ * Adds 1000 books and members named {@code List Bench} for the run and deletes them afterwards.
+ * Needs the PostgreSQL database from {@code application.yml};
+ * run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="ListProjectionBenchmark -prof gc"}
+ * and compare the time and {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final BookFilterDTO NO_FILTER = new BookFilterDTO(null, null, null, null);
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private MemberRepository memberRepository;
+    private BookMapper bookMapper;
+    private MemberMapper memberMapper;
+    private JdbcTemplate jdbcTemplate;
+
+    private Pageable bookPage;
+    private Pageable memberPage;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(NerdySoftTechTaskApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--custom.tracing.layers=false",
+                        "--custom.sqlStats.enabled=false",
+                        "--logging.level.root=WARN");
+
+        bookRepository = context.getBean(BookRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        bookMapper = context.getBean(BookMapper.class);
+        memberMapper = context.getBean(MemberMapper.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("""
+                insert into books (title, author, amount, sharded)
+                select 'List Bench ' || n, 'List Bench', n, false
+                from generate_series(1, ?) n
+                """, ROWS);
+        jdbcTemplate.update("""
+                insert into members (name, membership_date)
+                select 'List Bench', now()
+                from generate_series(1, ?) n
+                """, ROWS);
+
+        bookPage = PageRequest.of(0, ROWS, Sort.by(Sort.Direction.DESC, "id"));
+        memberPage = PageRequest.of(0, ROWS, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("delete from books where author = 'List Bench'");
+        jdbcTemplate.update("delete from members where name = 'List Bench'");
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BookDTO> booksEntities() {
+        return bookRepository.findAll(bookPage).map(bookMapper::toDTO);
+    }
+
+    @Benchmark
+    public Page<BookDTO> booksProjection() {
+        return bookRepository.findAllAsDTO(BookSpecifications.matches(NO_FILTER), bookPage);
+    }
+
+    @Benchmark
+    public Page<MemberDTO> membersEntities() {
+        return memberRepository.findAll(memberPage).map(memberMapper::toDTO);
+    }
+
+    @Benchmark
+    public Page<MemberDTO> membersProjection() {
+        return memberRepository.findAllRows(memberPage).map(memberMapper::toDTO);
+    }
+}
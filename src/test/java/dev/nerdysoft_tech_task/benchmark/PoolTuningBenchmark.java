@@ -0,0 +1,126 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Borrow/return and create throughput against a running application, to compare
+ * the default datasource settings with the {@code prod} profile.
+ * <ul>
+ *     <li>{@code borrowAndReturn} - every thread has its own member and borrows
+ *     and returns the same well-stocked book</li>
+ *     <li>{@code createBook} - every thread adds copies of its own book title</li>
+ * </ul>
+ * Start the application with {@code --custom.rateLimit.enabled=false --custom.stock.autoSlotsEnabled=false},
+ * with and without {@code --spring.profiles.active=prod}, and run
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PoolTuningBenchmark} each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class PoolTuningBenchmark {
+
+    private static final String URL = System.getProperty("benchmark.baseUrl", "http://localhost:8080/api/v1");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private HttpClient client;
+    private long bookId;
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        private HttpRequest toggleLoan;
+        private HttpRequest createBook;
+
+        @Setup
+        public void setUp(
+                PoolTuningBenchmark benchmark
+        ) throws IOException, InterruptedException {
+            int thread = THREADS.incrementAndGet();
+            long memberId = benchmark.create("/members", "{\"name\":\"Pool Bench\"}");
+
+            toggleLoan = HttpRequest.newBuilder(URI.create(URL + "/members/" + memberId + "/books/" + benchmark.bookId))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            createBook = json(URI.create(URL + "/books"), "POST",
+                    "{\"title\":\"Pool Bench " + thread + "\",\"author\":\"Pool Bench\"}");
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        bookId = create("/books", "{\"title\":\"Pool Bench Stock\",\"author\":\"Pool Bench\"}");
+        send(json(URI.create(URL + "/books/" + bookId), "PUT",
+                "{\"title\":\"Pool Bench Stock\",\"author\":\"Pool Bench\",\"amount\":1000000}"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public int borrowAndReturn(
+            Client thread
+    ) throws IOException, InterruptedException {
+        return send(thread.toggleLoan).length() + send(thread.toggleLoan).length();
+    }
+
+    @Benchmark
+    public int createBook(
+            Client thread
+    ) throws IOException, InterruptedException {
+        return send(thread.createBook).length();
+    }
+
+    private long create(
+            String path,
+            String body
+    ) throws IOException, InterruptedException {
+        Matcher matcher = ID.matcher(send(json(URI.create(URL + path), "POST", body)));
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in response of POST " + path);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private String send(
+            HttpRequest request
+    ) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static HttpRequest json(
+            URI uri,
+            String method,
+            String body
+    ) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
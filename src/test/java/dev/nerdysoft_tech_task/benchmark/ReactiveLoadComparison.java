@@ -0,0 +1,323 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the servlet/JPA and the {@code reactive} (WebFlux/R2DBC) variants of
+ * the API under many concurrent clients when the database answers slowly.
+ * <p>
+ * Both variants connect to PostgreSQL through a local proxy that delays every
+ * response from the database by {@code latencyMs}, get connection pools of the
+ * same size and are loaded by {@code concurrency} clients requesting random books
+ * by id. Printed are requests per second, latency percentiles, errors, live JVM
+ * threads and resident memory (Linux).
+ * <p>
+ * Build the jar first, then run
+ * {@code java -cp target/test-classes dev.nerdysoft_tech_task.benchmark.ReactiveLoadComparison [latencyMs] [concurrency] [seconds] [poolSize]}.
+ */
+public class ReactiveLoadComparison {
+
+    private static final Path JAR = Path.of("target/NerdySoft_Tech_Task-0.0.1-SNAPSHOT.jar");
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private static final String BASE_URI = "http://localhost:8080/api/v1";
+    private static final int DATABASE_PORT = 5432;
+    private static final int PROXY_PORT = 5433;
+    private static final Pattern BOOK_ID = Pattern.compile("\\{\"id\":(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        long latencyMs = args.length > 0 ? Long.parseLong(args[0]) : 20;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int poolSize = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        try (SlowDatabaseProxy ignored = new SlowDatabaseProxy(PROXY_PORT, DATABASE_PORT, latencyMs)) {
+            List<String> common = List.of(
+                    "--spring.datasource.url=jdbc:postgresql://localhost:" + PROXY_PORT + "/nerdySoft_tech_task",
+                    "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + PROXY_PORT + "/nerdySoft_tech_task",
+                    "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                    "--spring.r2dbc.pool.max-size=" + poolSize,
+                    "--spring.jpa.hibernate.ddl-auto=none",
+                    "--custom.rateLimit.enabled=false",
+                    "--custom.stock.autoSlotsEnabled=false");
+
+            System.out.printf("database latency %d ms, %d clients, %d s, pool %d%n", latencyMs, concurrency, seconds, poolSize);
+            measure("servlet", common, List.of(), concurrency, seconds);
+            measure("reactive", common, List.of("--spring.profiles.active=reactive"), concurrency, seconds);
+        }
+    }
+
+    private static void measure(
+            String mode,
+            List<String> common,
+            List<String> modeArgs,
+            int concurrency,
+            int seconds
+    ) throws Exception {
+        List<String> command = new ArrayList<>(List.of(JAVA, "-jar", JAR.toString()));
+        command.addAll(common);
+        command.addAll(modeArgs);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            waitUntilUp(client, process);
+            long[] bookIds = findBookIds(client);
+
+            load(client, bookIds, concurrency, Math.max(1, seconds / 4));
+            Result result = load(client, bookIds, concurrency, seconds);
+
+            System.out.printf("%-8s %8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  errors %5d  threads %4s  rss %5d MB%n",
+                    mode,
+                    result.requests() / (double) seconds,
+                    result.percentileMillis(0.50),
+                    result.percentileMillis(0.99),
+                    result.errors(),
+                    liveThreads(client),
+                    rssKb(process.pid()) / 1024);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private record Result(
+            long requests,
+            long errors,
+            long[] latenciesNanos
+    ) {
+        double percentileMillis(double percentile) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latenciesNanos.length - 1, Math.ceil(percentile * latenciesNanos.length) - 1);
+            return latenciesNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    private static Result load(
+            HttpClient client,
+            long[] bookIds,
+            int concurrency,
+            int seconds
+    ) throws InterruptedException {
+        LongAdder errors = new LongAdder();
+        List<long[]> latencies = new ArrayList<>();
+        List<int[]> counts = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                long[] clientLatencies = new long[1 << 16];
+                int[] clientCount = new int[1];
+                latencies.add(clientLatencies);
+                counts.add(clientCount);
+
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long bookId = bookIds[ThreadLocalRandom.current().nextInt(bookIds.length)];
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URI + "/books/" + bookId)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            errors.increment();
+                        }
+                        if (clientCount[0] < clientLatencies.length) {
+                            clientLatencies[clientCount[0]++] = System.nanoTime() - start;
+                        }
+                    }
+                });
+            }
+        }
+
+        int total = counts.stream().mapToInt(count -> count[0]).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int i = 0; i < latencies.size(); i++) {
+            System.arraycopy(latencies.get(i), 0, all, offset, counts.get(i)[0]);
+            offset += counts.get(i)[0];
+        }
+        Arrays.sort(all);
+
+        return new Result(total, errors.sum(), all);
+    }
+
+    private static long[] findBookIds(
+            HttpClient client
+    ) throws IOException, InterruptedException {
+        String page = client.send(
+                HttpRequest.newBuilder(URI.create(BASE_URI + "/books?size=1000")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = BOOK_ID.matcher(page);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No books to request");
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static String liveThreads(
+            HttpClient client
+    ) throws IOException, InterruptedException {
+        String body = client.send(
+                HttpRequest.newBuilder(URI.create(BASE_URI + "/actuator/metrics/jvm.threads.live")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+
+        Matcher matcher = Pattern.compile("\"value\":(\\d+)").matcher(body);
+        return matcher.find() ? matcher.group(1) : "?";
+    }
+
+    private static void waitUntilUp(
+            HttpClient client,
+            Process process
+    ) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URI + "/actuator/health")).build();
+        while (process.isAlive()) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.ofString()).body().contains("UP")) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Application exited with " + process.exitValue());
+    }
+
+    private static long rssKb(
+            long pid
+    ) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+
+        return Files.readAllLines(status)
+                .stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElse(0);
+    }
+
+    /**
+     * TCP proxy that forwards client bytes at once and database bytes {@code latencyMs} after they arrived.
+     */
+    private static class SlowDatabaseProxy implements AutoCloseable {
+
+        private record Chunk(
+                long dueNanos,
+                byte[] bytes
+        ) {
+        }
+
+        private final ServerSocket serverSocket;
+        private final long latencyNanos;
+        private final int databasePort;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        SlowDatabaseProxy(
+                int port,
+                int databasePort,
+                long latencyMs
+        ) throws IOException {
+            this.serverSocket = new ServerSocket(port);
+            this.databasePort = databasePort;
+            this.latencyNanos = Duration.ofMillis(latencyMs).toNanos();
+            executor.submit(this::accept);
+        }
+
+        private void accept() {
+            while (open.get()) {
+                try {
+                    Socket client = serverSocket.accept();
+                    Socket database = new Socket("localhost", databasePort);
+                    client.setTcpNoDelay(true);
+                    database.setTcpNoDelay(true);
+
+                    LinkedBlockingQueue<Chunk> delayed = new LinkedBlockingQueue<>();
+                    executor.submit(() -> pump(client.getInputStream(), database.getOutputStream(), null));
+                    executor.submit(() -> pump(database.getInputStream(), null, delayed));
+                    executor.submit(() -> deliver(delayed, client.getOutputStream()));
+                } catch (IOException e) {
+                    // proxy closed or database unavailable
+                }
+            }
+        }
+
+        private Void pump(
+                InputStream in,
+                OutputStream out,
+                LinkedBlockingQueue<Chunk> delayed
+        ) throws IOException {
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                if (delayed == null) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                } else {
+                    delayed.add(new Chunk(System.nanoTime() + latencyNanos, Arrays.copyOf(buffer, read)));
+                }
+            }
+            return null;
+        }
+
+        private Void deliver(
+                LinkedBlockingQueue<Chunk> delayed,
+                OutputStream out
+        ) throws IOException, InterruptedException {
+            while (open.get()) {
+                Chunk chunk = delayed.take();
+                long waitNanos = chunk.dueNanos() - System.nanoTime();
+                if (waitNanos > 0) {
+                    Thread.sleep(Duration.ofNanos(waitNanos));
+                }
+                out.write(chunk.bytes());
+                out.flush();
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            open.set(false);
+            serverSocket.close();
+            executor.shutdownNow();
+        }
+    }
+}
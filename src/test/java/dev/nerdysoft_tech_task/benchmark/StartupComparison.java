@@ -0,0 +1,119 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the application in every available mode and prints the time until
+ * {@code /actuator/health} is UP and the resident memory (Linux) at that point.
+ * <ul>
+ *     <li>{@code jvm} - plain jar</li>
+ *     <li>{@code aot} - the same jar built with {@code -Pnative package}, run with {@code -Dspring.aot.enabled=true}</li>
+ *     <li>{@code cds} - the jar extracted to {@code target/cds} with the class data archive built by {@code -Pcds package}</li>
+ *     <li>{@code native} - {@code target/NerdySoft_Tech_Task} built with {@code -Pnative native:compile}</li>
+ * </ul>
+ * Build first, then run
+ * {@code java -cp target/test-classes dev.nerdysoft_tech_task.benchmark.StartupComparison [runs] [application args]},
+ * e.g. with {@code --spring.jpa.hibernate.ddl-auto=none} to leave out the schema update.
+ */
+public class StartupComparison {
+
+    private static final Path JAR = Path.of("target/NerdySoft_Tech_Task-0.0.1-SNAPSHOT.jar");
+    private static final Path CDS_JAR = Path.of("target/cds/NerdySoft_Tech_Task-0.0.1-SNAPSHOT.jar");
+    private static final Path CDS_ARCHIVE = Path.of("target/cds/application.jsa");
+    private static final Path NATIVE = Path.of("target/NerdySoft_Tech_Task");
+    private static final URI HEALTH = URI.create("http://localhost:8080/api/v1/actuator/health");
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        List<String> applicationArgs = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of();
+
+        if (Files.exists(JAR)) {
+            measure("jvm", List.of(JAVA, "-jar", JAR.toString()), applicationArgs, runs);
+            measure("aot", List.of(JAVA, "-Dspring.aot.enabled=true", "-jar", JAR.toString()), applicationArgs, runs);
+        }
+        if (Files.exists(CDS_ARCHIVE)) {
+            measure("cds", List.of(JAVA, "-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-jar", CDS_JAR.toString()), applicationArgs, runs);
+        }
+        if (Files.isExecutable(NATIVE)) {
+            measure("native", List.of(NATIVE.toString()), applicationArgs, runs);
+        }
+    }
+
+    private static void measure(
+            String mode,
+            List<String> command,
+            List<String> applicationArgs,
+            int runs
+    ) throws Exception {
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("--custom.stock.autoSlotsEnabled=false");
+        fullCommand.addAll(applicationArgs);
+
+        long totalMillis = 0;
+        long totalRssKb = 0;
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(fullCommand)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                waitUntilHealthy(process);
+                totalMillis += (System.nanoTime() - start) / 1_000_000;
+                totalRssKb += rssKb(process.pid());
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+
+        System.out.printf("%-6s startup %6d ms  rss %6d MB%n", mode, totalMillis / runs, totalRssKb / runs / 1024);
+    }
+
+    private static void waitUntilHealthy(
+            Process process
+    ) throws InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(HEALTH).build();
+            while (process.isAlive()) {
+                try {
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() == 200 && response.body().contains("UP")) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("Application exited with " + process.exitValue());
+    }
+
+    private static long rssKb(
+            long pid
+    ) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+
+        return Files.readAllLines(status)
+                .stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,154 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of concurrent borrows of one book depending on the number of its stock slots.
+ * Every borrow is its own transaction that takes a copy from a random unlocked slot
+ * (the same SQL as {@code StockSlotRepository}) and holds the row lock for
+ * {@code holdMillis}, as a real borrow does while it inserts the loan.
+ * <p>
+ * Needs the PostgreSQL database from {@code application.yml};
+ * run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=StockSlotsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(16)
+public class StockSlotsBenchmark {
+
+    private static final String URL = System.getProperty("benchmark.url", "jdbc:postgresql://localhost:5432/nerdySoft_tech_task");
+    private static final String USERNAME = System.getProperty("benchmark.username", "postgres");
+    private static final String PASSWORD = System.getProperty("benchmark.password", "123456789");
+
+    private static final String TAKE_UNLOCKED = """
+            update stock_slots
+            set amount = amount - 1
+            where id = (
+                select id
+                from stock_slots
+                where book_id = ? and amount > 0
+                order by random()
+                limit 1
+                for update skip locked)
+            """;
+
+    private static final String TAKE = """
+            update stock_slots
+            set amount = amount - 1
+            where id = (
+                select id
+                from stock_slots
+                where book_id = ? and amount > 0
+                order by random()
+                limit 1
+                for update)
+            """;
+
+    private static final String PUT = """
+            update stock_slots
+            set amount = amount + 1
+            where id = (
+                select id
+                from stock_slots
+                where book_id = ?
+                order by random()
+                limit 1)
+            """;
+
+    @Param({"1", "4", "16"})
+    private int slots;
+
+    @Param({"2"})
+    private int holdMillis;
+
+    private long bookId;
+
+    @Setup(Level.Trial)
+    public void createBook() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "insert into books (title, author, amount, sharded) values (?, ?, 0, true) returning id")) {
+                statement.setString(1, "Benchmark " + System.nanoTime());
+                statement.setString(2, "Benchmark Author");
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    bookId = resultSet.getLong(1);
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "insert into stock_slots (book_id, slot, amount) values (?, ?, ?)")) {
+                for (int slot = 0; slot < slots; slot++) {
+                    statement.setLong(1, bookId);
+                    statement.setInt(2, slot);
+                    statement.setInt(3, 1_000_000);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteBook() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from stock_slots where book_id = " + bookId);
+            statement.executeUpdate("delete from books where id = " + bookId);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        private Connection connection;
+        private PreparedStatement takeUnlocked;
+        private PreparedStatement take;
+        private PreparedStatement put;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+            connection.setAutoCommit(false);
+            takeUnlocked = connection.prepareStatement(TAKE_UNLOCKED);
+            take = connection.prepareStatement(TAKE);
+            put = connection.prepareStatement(PUT);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean borrowAndReturn(
+            Session session
+    ) throws SQLException, InterruptedException {
+        session.takeUnlocked.setLong(1, bookId);
+        boolean taken = session.takeUnlocked.executeUpdate() > 0;
+        if (!taken) {
+            session.take.setLong(1, bookId);
+            taken = session.take.executeUpdate() > 0;
+        }
+        Thread.sleep(holdMillis);
+        session.connection.commit();
+
+        session.put.setLong(1, bookId);
+        session.put.executeUpdate();
+        session.connection.commit();
+        return taken;
+    }
+}
@@ -0,0 +1,61 @@
+package dev.nerdysoft_tech_task.benchmark;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of one {@link BookDTO} the way a request body is validated:
+ * Bean Validation through Spring's adapter versus {@link BookDTOValidator}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="ValidationBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"valid", "invalid"})
+    private String input;
+
+    private BookDTO dto;
+    private LocalValidatorFactoryBean beanValidator;
+    private BookDTOValidator bookDTOValidator;
+
+    @Setup
+    public void setUp() {
+        dto = input.equals("valid")
+                ? new BookDTO(null, "The Great Gatsby", "Francis Fitzgerald", 10)
+                : new BookDTO(null, "th", "francis", -1);
+
+        beanValidator = new LocalValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        bookDTOValidator = new BookDTOValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        beanValidator.close();
+    }
+
+    @Benchmark
+    public int beanValidation() {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(dto, "bookDTO");
+        beanValidator.validate(dto, errors);
+        return errors.getErrorCount();
+    }
+
+    @Benchmark
+    public int handWritten() {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(dto, "bookDTO");
+        bookDTOValidator.validate(dto, errors);
+        return errors.getErrorCount();
+    }
+}
@@ -0,0 +1,56 @@
+package dev.nerdysoft_tech_task.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "custom.rateLimit.enabled=false")
+class LegacyBorrowsMigrationTest {
+
+    @Autowired
+    private LegacyBorrowsMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long memberId;
+    private long bookId;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists " + LegacyBorrowsMigration.LEGACY_TABLE);
+        jdbcTemplate.update("delete from loans where member_id = ?", memberId);
+        jdbcTemplate.update("delete from members where id = ?", memberId);
+        jdbcTemplate.update("delete from books where id = ?", bookId);
+    }
+
+    @Test
+    void migrate_whenLegacyTableExists_moveBorrowsToLoansAndDropIt() {
+        memberId = jdbcTemplate.queryForObject(
+                "insert into members (name, membership_date) values ('Legacy Borrower', now()) returning id", Long.class);
+        bookId = jdbcTemplate.queryForObject(
+                "insert into books (title, author, amount, sharded) values ('Legacy ' || now(), 'Legacy', 0, false) returning id", Long.class);
+        jdbcTemplate.execute("""
+                create table members_borrowed_books (
+                    member_id bigint not null references members,
+                    book_id bigint not null references books,
+                    primary key (member_id, book_id)
+                )
+                """);
+        jdbcTemplate.update("insert into members_borrowed_books values (?, ?)", memberId, bookId);
+
+        migration.migrate();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from loans where member_id = ? and book_id = ? and due_at > borrowed_at",
+                Integer.class, memberId, bookId));
+        assertFalse(jdbcTemplate.queryForObject(
+                "select to_regclass('members_borrowed_books') is not null", Boolean.class));
+
+        migration.migrate();
+    }
+}
@@ -0,0 +1,118 @@
+package dev.nerdysoft_tech_task.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import dev.nerdysoft_tech_task.json.DTOSerializersModule;
+import dev.nerdysoft_tech_task.ratelimit.RateLimiter;
+import dev.nerdysoft_tech_task.service.BookService;
+import dev.nerdysoft_tech_task.service.MemberService;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
+import dev.nerdysoft_tech_task.validation.MemberDTOValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BookController.class, MemberController.class})
+@Import({BookDTOValidator.class, MemberDTOValidator.class, DTOSerializersModule.class})
+class CborContentNegotiationTest {
+
+    private static final CBORMapper CBOR = new CBORMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookService bookService;
+
+    @MockitoBean
+    private MemberService memberService;
+
+    @MockitoBean
+    private RateLimiter rateLimiter;
+
+    @Test
+    void findById_whenCborAccepted_returnBookDTOAsCbor() throws Exception {
+        BookDTO expected = new BookDTO(1L, "The Great Gatsby", "Francis Fitzgerald", 10);
+
+        when(bookService.findById(1L))
+                .thenReturn(expected);
+
+        MvcResult result = mockMvc.perform(get("/books/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(expected, CBOR.readValue(result.getResponse().getContentAsByteArray(), BookDTO.class));
+    }
+
+    @Test
+    void findAll_whenCborAccepted_returnPageAsCbor() throws Exception {
+        MemberDTO member = new MemberDTO(1L, "John Doe", "2025-08-06T12:00:00");
+
+        when(memberService.findAll(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(member), PageRequest.of(0, 10), 1));
+
+        MvcResult result = mockMvc.perform(get("/members").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        Map<String, Object> page = CBOR.readValue(result.getResponse().getContentAsByteArray(), new TypeReference<>() {});
+        List<MemberDTO> content = CBOR.convertValue(page.get("content"), new TypeReference<>() {});
+        assertEquals(List.of(member), content);
+        assertEquals(Map.of("size", 10, "number", 0, "totalElements", 1, "totalPages", 1), page.get("page"));
+    }
+
+    @Test
+    void createBook_whenCborBodyIsInvalid_returnErrorAsCbor() throws Exception {
+        byte[] body = CBOR.writeValueAsBytes(new BookDTO(null, "ti", "Name Surname", null));
+
+        MvcResult result = mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        Map<String, Object> error = CBOR.readValue(result.getResponse().getContentAsByteArray(), new TypeReference<>() {});
+        assertEquals(400, error.get("status"));
+        assertEquals(2, ((List<?>) error.get("details")).size());
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void findById_whenNothingAccepted_returnJson() throws Exception {
+        when(bookService.findById(1L))
+                .thenReturn(new BookDTO(1L, "The Great Gatsby", "Francis Fitzgerald", 10));
+
+        mockMvc.perform(get("/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("""
+                        {"id":1,"title":"The Great Gatsby","author":"Francis Fitzgerald","amount":10}
+                        """, true));
+    }
+}
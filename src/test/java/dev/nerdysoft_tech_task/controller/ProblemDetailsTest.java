@@ -0,0 +1,81 @@
+package dev.nerdysoft_tech_task.controller;
+
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.json.DTOSerializersModule;
+import dev.nerdysoft_tech_task.ratelimit.RateLimiter;
+import dev.nerdysoft_tech_task.service.BookService;
+import dev.nerdysoft_tech_task.service.MemberService;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
+import dev.nerdysoft_tech_task.validation.MemberDTOValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BookController.class, MemberController.class})
+@Import({BookDTOValidator.class, MemberDTOValidator.class, DTOSerializersModule.class})
+@TestPropertySource(properties = "custom.error.problemDetails=true")
+class ProblemDetailsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookService bookService;
+
+    @MockitoBean
+    private MemberService memberService;
+
+    @MockitoBean
+    private RateLimiter rateLimiter;
+
+    @Test
+    void findById_whenBookNotFound_returnProblemDetail() throws Exception {
+        when(bookService.findById(1L))
+                .thenThrow(new NotFoundException("Book not found by id 1"));
+
+        mockMvc.perform(get("/books/1"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("about:blank"))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Book not found by id 1"))
+                .andExpect(jsonPath("$.instance").value("/books/1"))
+                .andExpect(jsonPath("$.timestamp").exists())
+                .andExpect(jsonPath("$.details", hasSize(1)))
+                .andExpect(jsonPath("$.details[0].message").value("Book not found by id 1"))
+                .andExpect(jsonPath("$.path").doesNotExist());
+    }
+
+    @Test
+    void createBook_whenBodyIsInvalid_returnProblemDetailWithEveryViolation() throws Exception {
+        mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"ti","author":"Name Surname"}
+                                """))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("about:blank"))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.detail").value("Validation failed"))
+                .andExpect(jsonPath("$.instance").value("/books"))
+                .andExpect(jsonPath("$.details", hasSize(2)));
+
+        verifyNoInteractions(bookService);
+    }
+}
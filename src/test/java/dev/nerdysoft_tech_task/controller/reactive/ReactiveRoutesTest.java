@@ -0,0 +1,167 @@
+package dev.nerdysoft_tech_task.controller.reactive;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.exception.UnsupportedSortException;
+import dev.nerdysoft_tech_task.json.DTOSerializersModule;
+import dev.nerdysoft_tech_task.service.ReactiveBookService;
+import dev.nerdysoft_tech_task.service.ReactiveMemberService;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
+import dev.nerdysoft_tech_task.validation.MemberDTOValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest
+@ActiveProfiles("reactive")
+@Import({
+        ReactiveRoutes.class,
+        BookHandler.class,
+        MemberHandler.class,
+        ReactiveErrorFilter.class,
+        BookDTOValidator.class,
+        MemberDTOValidator.class,
+        DTOSerializersModule.class
+})
+class ReactiveRoutesTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveBookService reactiveBookService;
+
+    @MockitoBean
+    private ReactiveMemberService reactiveMemberService;
+
+    @Test
+    void findById_whenFound_returnBookDTO() {
+        BookDTO expected = new BookDTO(1L, "The Great Gatsby", "Francis Fitzgerald", 10);
+
+        when(reactiveBookService.findById(1L))
+                .thenReturn(Mono.just(expected));
+
+        webTestClient.get().uri("/books/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BookDTO.class).isEqualTo(expected);
+    }
+
+    @Test
+    void findById_whenNotFound_returnErrorDTOWith404() {
+        when(reactiveBookService.findById(1L))
+                .thenReturn(Mono.error(new NotFoundException("Book not found by id 1")));
+
+        webTestClient.get().uri("/books/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.path").isEqualTo("/books/1")
+                .jsonPath("$.details[0].message").isEqualTo("Book not found by id 1");
+    }
+
+    @Test
+    void findAll_whenPageRequested_returnPageInPagedModelLayout() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Order.desc("title")));
+        BookDTO book = new BookDTO(1L, "The Great Gatsby", "Francis Fitzgerald", 10);
+
+        when(reactiveBookService.findAll(new BookFilterDTO(null, null, null, null), pageable))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(book), pageable, 3)));
+
+        webTestClient.get().uri("/books?page=1&size=2&sort=title,desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].title").isEqualTo("The Great Gatsby")
+                .jsonPath("$.page.totalElements").isEqualTo(3)
+                .jsonPath("$.page.number").isEqualTo(1);
+    }
+
+    @Test
+    void findAll_whenFiltersRequested_passThemToService() {
+        Pageable pageable = PageRequest.of(0, 20);
+
+        when(reactiveBookService.findAll(new BookFilterDTO("Francis Fitzgerald", "The Gr", true, false), pageable))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(), pageable, 0)));
+
+        webTestClient.get().uri("/books?author=Francis Fitzgerald&titleStartsWith=The Gr&available=true&borrowed=false")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.page.totalElements").isEqualTo(0);
+    }
+
+    @Test
+    void findAll_whenSortIsNotSupported_returnBadRequest() {
+        when(reactiveBookService.findAll(any(), any()))
+                .thenThrow(new UnsupportedSortException("Books can't be sorted by amount"));
+
+        webTestClient.get().uri("/books?sort=amount")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.details[0].message").isEqualTo("Books can't be sorted by amount");
+    }
+
+    @Test
+    void createBook_whenInvalid_returnValidationErrorsWithoutCallingService() {
+        webTestClient.post().uri("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookDTO(null, "x", "Francis Fitzgerald", 1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.details[?(@.value == 'title')]").exists();
+
+        verifyNoInteractions(reactiveBookService);
+    }
+
+    @Test
+    void updateMember_whenRespondAsyncPreferred_return202() {
+        MemberDTO dto = new MemberDTO(null, "New Name", null);
+
+        when(reactiveMemberService.updateMemberAsync(1L, dto))
+                .thenReturn(Mono.empty());
+
+        webTestClient.put().uri("/members/1")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isAccepted();
+
+        verify(reactiveMemberService, never()).updateMember(any(), any());
+    }
+
+    @Test
+    void updateBorrowedBooks_whenBookCantBeBorrowed_return400() {
+        when(reactiveMemberService.updateBorrowedBooks(1L, 2L, 3L))
+                .thenReturn(Flux.error(new BookCantBeBorrowedException("Amount of books with id 2 in branch with id 3 is 0")));
+
+        webTestClient.patch().uri("/members/1/books/2?branch_id=3")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.details[0].message").isEqualTo("Amount of books with id 2 in branch with id 3 is 0");
+    }
+}
@@ -0,0 +1,277 @@
+package dev.nerdysoft_tech_task.idempotency;
+
+import com.jayway.jsonpath.JsonPath;
+import dev.nerdysoft_tech_task.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "custom.rateLimit.enabled=false",
+        "custom.idempotency.inFlightWait=PT2S"
+})
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<String> keys = new ArrayList<>();
+    private final List<long[]> loans = new ArrayList<>();
+    private final List<Long> memberIds = new ArrayList<>();
+    private final List<Long> bookIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (long[] loan : loans) {
+            mockMvc.perform(patch("/members/{member_id}/books/{book_id}", loan[0], loan[1]));
+        }
+        for (Long memberId : memberIds) {
+            mockMvc.perform(delete("/members/{id}", memberId));
+        }
+        for (Long bookId : bookIds) {
+            mockMvc.perform(delete("/books/{id}", bookId));
+        }
+        idempotencyRecordRepository.deleteAllById(keys);
+    }
+
+    @Test
+    void createBook_whenRetriedWithSameKey_replayResponseAndAddOneCopy() throws Exception {
+        String key = newKey();
+        String book = "{\"title\":\"Idempotency " + key + "\",\"author\":\"Idempotency Test\"}";
+
+        MvcResult first = mockMvc.perform(post("/books")
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(book))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        long bookId = ((Number) JsonPath.read(first.getResponse().getContentAsString(), "$.id")).longValue();
+        bookIds.add(bookId);
+
+        mockMvc.perform(post("/books")
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(book))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().string(first.getResponse().getContentAsString()));
+
+        mockMvc.perform(get("/books/{id}", bookId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(1));
+    }
+
+    @Test
+    void updateBorrowedBooks_whenRetriedWithSameKey_keepBookBorrowed() throws Exception {
+        long bookId = createBook();
+        long memberId = createMember();
+        String key = newKey();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(patch("/members/{member_id}/books/{book_id}", memberId, bookId)
+                            .header(IdempotencyFilter.KEY_HEADER, key))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(bookId));
+        }
+        loans.add(new long[]{memberId, bookId});
+
+        mockMvc.perform(get("/members/{id}/books", memberId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void updateBorrowedBooks_whenKeyReusedForAnotherBook_returnUnprocessableEntity() throws Exception {
+        long bookId = createBook();
+        long otherBookId = createBook();
+        long memberId = createMember();
+        String key = newKey();
+
+        mockMvc.perform(patch("/members/{member_id}/books/{book_id}", memberId, bookId)
+                        .header(IdempotencyFilter.KEY_HEADER, key))
+                .andExpect(status().isOk());
+        loans.add(new long[]{memberId, bookId});
+
+        mockMvc.perform(patch("/members/{member_id}/books/{book_id}", memberId, otherBookId)
+                        .header(IdempotencyFilter.KEY_HEADER, key))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.details[0].message").exists());
+    }
+
+    @Test
+    void createBook_whenRequestFailed_doNotStoreResponse() throws Exception {
+        String key = newKey();
+
+        mockMvc.perform(post("/books")
+                        .header(IdempotencyFilter.KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"\",\"author\":\"Idempotency Test\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertFalse(idempotencyRecordRepository.existsById(key));
+    }
+
+    @Test
+    void createBook_whenKeyIsHeldByAnotherInstance_returnConflictAfterInFlightWait() throws Exception {
+        String key = newKey();
+
+        try (Connection otherInstance = dataSource.getConnection()) {
+            otherInstance.setAutoCommit(false);
+            try (PreparedStatement statement = otherInstance.prepareStatement("""
+                    insert into idempotency_keys (idempotency_key, fingerprint, expires_at)
+                    values (?, 'other instance', now() + interval '1 hour')
+                    """)) {
+                statement.setString(1, key);
+                statement.executeUpdate();
+            }
+
+            try {
+                assertTimeoutPreemptively(Duration.ofSeconds(10), () -> mockMvc.perform(post("/books")
+                                .header(IdempotencyFilter.KEY_HEADER, key)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"title\":\"Held Key\",\"author\":\"Idempotency Test\"}"))
+                        .andExpect(status().isConflict())
+                        .andExpect(header().exists(HttpHeaders.RETRY_AFTER)));
+            } finally {
+                otherInstance.rollback();
+            }
+        }
+    }
+
+    @Test
+    void updateBorrowedBooks_whenFirstRequestFailsWhileRetryWaits_runRetryAgain() throws Exception {
+        long memberId = createMember();
+        long missingBookId = Long.MAX_VALUE;
+        String key = newKey();
+        Callable<MvcResult> borrow = () -> mockMvc.perform(patch("/members/{member_id}/books/{book_id}", memberId, missingBookId)
+                        .header(IdempotencyFilter.KEY_HEADER, key))
+                .andReturn();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2);
+             Connection memberLock = dataSource.getConnection()) {
+            memberLock.setAutoCommit(false);
+            try (PreparedStatement statement = memberLock.prepareStatement("select id from members where id = ? for update")) {
+                statement.setLong(1, memberId);
+                statement.executeQuery();
+            }
+
+            Future<MvcResult> first;
+            Future<MvcResult> retry;
+            try {
+                first = executor.submit(borrow);
+                awaitInFlight(key, 0);
+                retry = executor.submit(borrow);
+                awaitInFlight(key, 1);
+            } finally {
+                memberLock.rollback();
+            }
+
+            MvcResult firstResult = first.get(10, TimeUnit.SECONDS);
+            MvcResult retryResult = retry.get(10, TimeUnit.SECONDS);
+            assertEquals(404, firstResult.getResponse().getStatus());
+            assertEquals(404, retryResult.getResponse().getStatus());
+            assertNull(retryResult.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        }
+
+        assertFalse(idempotencyRecordRepository.existsById(key));
+    }
+
+    @Test
+    void createBook_whenKeyIsTooLong_returnBadRequest() throws Exception {
+        mockMvc.perform(post("/books")
+                        .header(IdempotencyFilter.KEY_HEADER, "k".repeat(IdempotencyFilter.MAX_KEY_LENGTH + 1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Too Long Key\",\"author\":\"Idempotency Test\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String newKey() {
+        String key = UUID.randomUUID().toString();
+        keys.add(key);
+        return key;
+    }
+
+    /**
+     * Waits until a request holds the key and the given number of retries wait for it.
+     */
+    @SuppressWarnings("unchecked")
+    private void awaitInFlight(
+            String key,
+            int waiters
+    ) throws InterruptedException {
+        Map<String, CompletableFuture<?>> inFlight =
+                (Map<String, CompletableFuture<?>>) ReflectionTestUtils.getField(idempotencyFilter, "inFlight");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            CompletableFuture<?> running = inFlight.get(key);
+            if (running != null && running.getNumberOfDependents() >= waiters) {
+                return;
+            }
+            assertTrue(System.nanoTime() < deadline, "Request with key " + key + " is not in flight");
+            Thread.sleep(10);
+        }
+    }
+
+    private long createBook() throws Exception {
+        String body = mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Idempotency " + UUID.randomUUID() + "\",\"author\":\"Idempotency Test\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long bookId = ((Number) JsonPath.read(body, "$.id")).longValue();
+        bookIds.add(bookId);
+        return bookId;
+    }
+
+    private long createMember() throws Exception {
+        String body = mockMvc.perform(post("/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Idempotency Test\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long memberId = ((Number) JsonPath.read(body, "$.id")).longValue();
+        memberIds.add(memberId);
+        return memberId;
+    }
+}
@@ -0,0 +1,95 @@
+package dev.nerdysoft_tech_task.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEndpointTest {
+
+    @TempDir
+    private Path directory;
+
+    private JfrEndpoint endpoint;
+    private Long recordingId;
+
+    @AfterEach
+    void tearDown() {
+        if (recordingId != null) {
+            endpoint.stop(recordingId);
+        }
+    }
+
+    @Test
+    void dump_containsBorrowEventsEmittedWhileRecording() throws Exception {
+        endpoint = new JfrEndpoint(directory, Duration.ofMinutes(30), 64L * 1024 * 1024);
+        JfrEndpoint.RecordingDescriptor started = endpoint.start("test", null, null, Duration.ofMinutes(1));
+        recordingId = started.id();
+
+        BorrowEvent event = new BorrowEvent();
+        event.begin();
+        event.setMemberId(1L);
+        event.setBookId(2L);
+        event.setReturned(true);
+        event.commit();
+
+        Resource dump = endpoint.dump(recordingId);
+        List<RecordedEvent> borrowEvents = RecordingFile
+                .readAllEvents(dump.getFile().toPath())
+                .stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("dev.nerdysoft_tech_task.Borrow"))
+                .toList();
+
+        assertEquals(RecordingState.RUNNING, started.state());
+        assertTrue(endpoint.recordings().stream().anyMatch(recording -> recording.id() == started.id()));
+        assertEquals(1, borrowEvents.size());
+        assertEquals(2L, borrowEvents.get(0).getLong("bookId"));
+        assertTrue(borrowEvents.get(0).getBoolean("returned"));
+    }
+
+    @Test
+    void start_whenMaxAgeAbsent_capRecordingWithDefaults() {
+        endpoint = new JfrEndpoint(directory, Duration.ofMinutes(30), 64L * 1024 * 1024);
+        JfrEndpoint.RecordingDescriptor started = endpoint.start(null, "profile", null, null);
+        recordingId = started.id();
+
+        assertEquals(Duration.ofMinutes(30), started.maxAge());
+        assertEquals(64L * 1024 * 1024, FlightRecorder
+                .getFlightRecorder()
+                .getRecordings()
+                .stream()
+                .filter(recording -> recording.getId() == started.id())
+                .findFirst()
+                .orElseThrow()
+                .getMaxSize());
+    }
+
+    @Test
+    void start_whenSettingsUnknown_throwsInvalidEndpointRequestException() {
+        endpoint = new JfrEndpoint(directory, Duration.ofMinutes(30), 64L * 1024 * 1024);
+
+        assertThrows(
+                InvalidEndpointRequestException.class,
+                () -> endpoint.start(null, "../../etc/passwd", null, null)
+        );
+    }
+
+    @Test
+    void dumpAndStop_whenRecordingNotFound_returnNull() {
+        endpoint = new JfrEndpoint(directory, Duration.ofMinutes(30), 64L * 1024 * 1024);
+
+        assertNull(endpoint.dump(Long.MAX_VALUE));
+        assertNull(endpoint.stop(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,54 @@
+package dev.nerdysoft_tech_task.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Serializers of {@link DTOSerializersModule} must write exactly the bytes Jackson writes reflectively.
+ */
+class DTOSerializersModuleTest {
+
+    private static final ObjectMapper REFLECTIVE = Jackson2ObjectMapperBuilder.json().build();
+    private static final ObjectMapper STREAMING = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new DTOSerializersModule())
+            .build();
+
+    static Stream<Object> values() {
+        BookDTO book = new BookDTO(1L, "The Great Gatsby", "Francis Fitzgerald", 10);
+        return Stream.of(
+                book,
+                new BookDTO(null, null, null, null),
+                new BookDTO(Long.MAX_VALUE, "Quotes \" and \\ and \n and ünïcødé 😀", "Name Surname", -1),
+                new MemberDTO(1L, "John Doe", "2025-08-06T12:00:00"),
+                new MemberDTO(null, null, null),
+                new BorrowedBookDTO("The Great Gatsby", 3),
+                new BorrowedBookDTO("The Great Gatsby", null),
+                new BorrowedBookDTO(null, null),
+                List.of(book, new BookDTO(2L, "Dune", "Frank Herbert", 0)),
+                Set.of(new BorrowedBookDTO("Dune", 1)),
+                new PagedModel<>(new PageImpl<>(List.of(book), PageRequest.of(2, 1), 5)),
+                new PagedModel<>(new PageImpl<>(List.of(new MemberDTO(1L, "John Doe", null)))),
+                new PagedModel<>(new PageImpl<>(List.of()))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("values")
+    void serialize_whenStreamingSerializers_writeSameBytesAsReflection(Object value) throws Exception {
+        assertArrayEquals(REFLECTIVE.writeValueAsBytes(value), STREAMING.writeValueAsBytes(value));
+    }
+}
@@ -0,0 +1,98 @@
+package dev.nerdysoft_tech_task.ratelimit;
+
+import dev.nerdysoft_tech_task.controller.MemberController;
+import dev.nerdysoft_tech_task.controller.StatsController;
+import dev.nerdysoft_tech_task.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RateLimitInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitInterceptor rateLimitInterceptor;
+    private HandlerMethod findMemberById;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimiter rateLimiter = new RateLimiter(meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "memberCapacity", 2);
+        ReflectionTestUtils.setField(rateLimiter, "memberRefillPerSecond", 1);
+        ReflectionTestUtils.setField(rateLimiter, "ipCapacity", 1);
+        ReflectionTestUtils.setField(rateLimiter, "ipRefillPerSecond", 1);
+        ReflectionTestUtils.setField(rateLimiter, "endpointCapacity", 100);
+        ReflectionTestUtils.setField(rateLimiter, "endpointRefillPerSecond", 1);
+        rateLimitInterceptor = new RateLimitInterceptor(rateLimiter);
+        findMemberById = new HandlerMethod(
+                mock(MemberController.class),
+                MemberController.class.getMethod("findById", Long.class));
+    }
+
+    @Test
+    void preHandle_whenIpBucketRejectsRequest_giveMemberTokenBack() {
+        assertTrue(preHandle(findMemberById, "1", "10.0.0.1"));
+        assertThrows(TooManyRequestsException.class, () -> preHandle(findMemberById, "1", "10.0.0.1"));
+
+        assertTrue(preHandle(findMemberById, "1", "10.0.0.2"));
+        TooManyRequestsException e = assertThrows(
+                TooManyRequestsException.class,
+                () -> preHandle(findMemberById, "1", "10.0.0.3")
+        );
+
+        assertEquals("Too many requests per member, try again later", e.getMessage());
+    }
+
+    @Test
+    void preHandle_whenIpIsThrottled_rejectOtherMembersFromSameIp() {
+        assertTrue(preHandle(findMemberById, "1", "10.0.0.1"));
+
+        TooManyRequestsException e = assertThrows(
+                TooManyRequestsException.class,
+                () -> preHandle(findMemberById, "2", "10.0.0.1")
+        );
+
+        assertEquals("Too many requests per ip, try again later", e.getMessage());
+        assertEquals(1.0, meterRegistry
+                .get("ratelimit.throttled")
+                .tag("scope", "ip")
+                .tag("endpoint", "MemberController.read")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void preHandle_whenControllerIsNotLimited_doesNotTakeTokens() throws NoSuchMethodException {
+        HandlerMethod findAvailabilityStats = new HandlerMethod(
+                mock(StatsController.class),
+                StatsController.class.getMethod("findAvailabilityStats"));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(preHandle(findAvailabilityStats, null, "10.0.0.1"));
+        }
+        assertTrue(preHandle(findMemberById, "1", "10.0.0.1"));
+    }
+
+    private boolean preHandle(
+            HandlerMethod handlerMethod,
+            String memberId,
+            String ip
+    ) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/members/" + memberId);
+        request.setRemoteAddr(ip);
+        if (memberId != null) {
+            request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", memberId));
+        }
+        return rateLimitInterceptor.preHandle(request, new MockHttpServletResponse(), handlerMethod);
+    }
+}
@@ -0,0 +1,100 @@
+package dev.nerdysoft_tech_task.ratelimit;
+
+import dev.nerdysoft_tech_task.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "memberCapacity", 3);
+        ReflectionTestUtils.setField(rateLimiter, "memberRefillPerSecond", 1);
+        ReflectionTestUtils.setField(rateLimiter, "ipCapacity", 100);
+        ReflectionTestUtils.setField(rateLimiter, "ipRefillPerSecond", 1);
+        ReflectionTestUtils.setField(rateLimiter, "endpointCapacity", 5);
+        ReflectionTestUtils.setField(rateLimiter, "endpointRefillPerSecond", 1);
+    }
+
+    @Test
+    void acquire_whenMemberCapacityIsExceeded_throwsTooManyRequestsExceptionAndCountsIt() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire("1", "10.0.0.1", "MemberController.write");
+        }
+
+        TooManyRequestsException e = assertThrows(
+                TooManyRequestsException.class,
+                () -> rateLimiter.acquire("1", "10.0.0.1", "MemberController.write")
+        );
+
+        assertTrue(e.getRetryAfter().toMillis() > 0);
+        assertEquals(1.0, meterRegistry
+                .get("ratelimit.throttled")
+                .tag("scope", "member")
+                .tag("endpoint", "MemberController.write")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void acquire_whenOtherMemberIsThrottled_doesNotThrow() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire("1", "10.0.0.1", "MemberController.write");
+        }
+
+        assertDoesNotThrow(() -> rateLimiter.acquire("2", "10.0.0.1", "MemberController.write"));
+    }
+
+    @Test
+    void acquire_whenEndpointIsThrottled_giveMemberAndIpTokensBack() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire(String.valueOf(i), "10.0.0." + i, "BookController.write");
+        }
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> rateLimiter.acquire("1", "10.0.0.1", "BookController.write")
+        );
+
+        for (int i = 0; i < 2; i++) {
+            rateLimiter.acquire("1", "10.0.0.1", "MemberController.write");
+        }
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> rateLimiter.acquire("1", "10.0.0.1", "MemberController.write")
+        );
+    }
+
+    @Test
+    void acquire_whenMemberIsNull_takeOnlyIpAndEndpointTokens() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire(null, "10.0.0.1", "BookController.read");
+        }
+
+        assertThrows(
+                TooManyRequestsException.class,
+                () -> rateLimiter.acquire(null, "10.0.0.1", "BookController.read")
+        );
+        assertTrue(meterRegistry.find("ratelimit.throttled").tag("scope", "member").counters().isEmpty());
+    }
+
+    @Test
+    void tryAcquire_whenTokensRefilled_takeTokenAgain() {
+        TokenBucket bucket = new TokenBucket(1, 10, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0) > 0);
+        assertEquals(0, bucket.tryAcquire(100_000_000));
+        assertFalse(bucket.isFull(100_000_000));
+        assertTrue(bucket.isFull(200_000_000));
+    }
+}
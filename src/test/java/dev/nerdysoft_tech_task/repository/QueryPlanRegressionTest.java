@@ -0,0 +1,351 @@
+package dev.nerdysoft_tech_task.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs repository queries against a seeded copy of the schema and checks their
+ * {@code EXPLAIN} plans: required indexes are used, large tables are never
+ * scanned sequentially and the estimated cost stays under a bound.
+ * <p>
+ * The SQL of a call is captured with a {@link StatementInspector} and explained
+ * as a generic plan, so PostgreSQL 16+ is required. Data lives in its own schema
+ * of the configured database and is recreated on every run.
+ */
+@DataJpaTest(
+        showSql = false,
+        properties = {
+                "spring.datasource.url=jdbc:postgresql://localhost:5432/nerdySoft_tech_task?preferQueryMode=simple&currentSchema=" + QueryPlanRegressionTest.SCHEMA,
+                "spring.datasource.hikari.connection-init-sql=create schema if not exists " + QueryPlanRegressionTest.SCHEMA,
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=dev.nerdysoft_tech_task.repository.QueryPlanRegressionTest$RecordingStatementInspector"
+        }
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    static final String SCHEMA = "query_plans";
+
+    private static final int BOOKS = 100_000;
+    private static final int MEMBERS = 50_000;
+    private static final int SHARDED_BOOKS = 1_000;
+    private static final int BRANCHES = 20;
+
+    /**
+     * Tables small enough that a sequential scan is the right plan.
+     */
+    private static final Set<String> SMALL_TABLES = Set.of("branches");
+
+    private static final double POINT_QUERY_COST = 100;
+
+    /**
+     * Filtered book pages read a few rows more and compute the stock of every
+     * row. A title prefix is a byte order range on {@code idx_books_title_prefix},
+     * or a walk of the title index in order when the page is sorted by title.
+     */
+    private static final double FILTERED_PAGE_COST = 5_000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private StockSlotRepository stockSlotRepository;
+
+    @Autowired
+    private BranchStockRepository branchStockRepository;
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private record QueryPlan(
+            String sql,
+            JsonNode plan
+    ) {
+        double totalCost() {
+            return plan.get("Total Cost").asDouble();
+        }
+
+        List<JsonNode> nodes() {
+            List<JsonNode> nodes = new ArrayList<>();
+            Deque<JsonNode> pending = new ArrayDeque<>(List.of(plan));
+            while (!pending.isEmpty()) {
+                JsonNode node = pending.pop();
+                nodes.add(node);
+                node.path("Plans").forEach(pending::push);
+            }
+            return nodes;
+        }
+
+        Set<String> indexes() {
+            Set<String> indexes = new HashSet<>();
+            for (JsonNode node : nodes()) {
+                if (node.has("Index Name")) {
+                    indexes.add(node.get("Index Name").asText());
+                }
+                node.path("Conflict Arbiter Indexes").forEach(index -> indexes.add(index.asText()));
+            }
+            return indexes;
+        }
+
+        Set<String> seqScannedTables() {
+            Set<String> tables = new HashSet<>();
+            for (JsonNode node : nodes()) {
+                if ("Seq Scan".equals(node.get("Node Type").asText())) {
+                    tables.add(node.get("Relation Name").asText());
+                }
+            }
+            return tables;
+        }
+
+        @Override
+        public String toString() {
+            return sql + "\n" + plan.toPrettyString();
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                insert into books (title, author, amount, sharded)
+                select 'Title ' || i, 'Author ' || (i % 5000), 10, i <= ?
+                from generate_series(1, ?) i
+                """, SHARDED_BOOKS, BOOKS);
+        jdbcTemplate.update("""
+                insert into members (name, membership_date)
+                select 'Member ' || i, now() - i * interval '1 minute'
+                from generate_series(1, ?) i
+                """, MEMBERS);
+        jdbcTemplate.update("""
+                insert into loans (member_id, book_id, borrowed_at, due_at, overdue)
+                select m, (m * 2 + k) % ? + 1, now() - interval '14 days', now() + (m % 15 - 1) * interval '1 day', m % 100 = 0
+                from generate_series(1, ?) m, generate_series(0, 1) k
+                """, BOOKS, MEMBERS);
+        jdbcTemplate.update("""
+                insert into stock_slots (book_id, slot, amount)
+                select b, s, 2
+                from generate_series(1, ?) b, generate_series(0, 7) s
+                """, SHARDED_BOOKS);
+        jdbcTemplate.update("""
+                insert into branches (name)
+                select 'Branch ' || i
+                from generate_series(1, ?) i
+                """, BRANCHES);
+        jdbcTemplate.update("""
+                insert into branch_stocks (book_id, branch_id, amount)
+                select b, r, 3
+                from generate_series(1, ?) b, generate_series(1, ?) r
+                """, SHARDED_BOOKS, BRANCHES);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void bookFindById_usePrimaryKey() {
+        assertPlans(explain(() -> bookRepository.findById(42L)), POINT_QUERY_COST, "books_pkey");
+    }
+
+    @Test
+    void bookFindByTitleAndAuthor_useTitleAuthorIndex() {
+        assertPlans(explain(() -> bookRepository.findByTitleAndAuthor("Title 42", "Author 42")),
+                POINT_QUERY_COST, "idx_books_title_author");
+    }
+
+    @Test
+    void bookAmountUpdates_usePrimaryKey() {
+        assertPlans(explain(() -> bookRepository.findByIdForUpdate(42L)), POINT_QUERY_COST, "books_pkey");
+        assertPlans(explain(() -> bookRepository.decreaseAmount(42L, 1)), POINT_QUERY_COST, "books_pkey");
+        assertPlans(explain(() -> bookRepository.increaseAmount(42L, 1)), POINT_QUERY_COST, "books_pkey");
+        assertPlans(explain(() -> bookRepository.increaseUnshardedAmount(42L, 1)), POINT_QUERY_COST, "books_pkey");
+    }
+
+    @Test
+    void bookFindAllByAuthor_useAuthorIndexForPageAndCount() {
+        List<QueryPlan> plans = explain(() -> bookRepository.findAllAsDTO(
+                BookSpecifications.matches(new BookFilterDTO("Author 42", null, true, false)),
+                PageRequest.of(1, 5, Sort.by("title"))));
+
+        assertEquals(2, plans.size());
+        plans.forEach(plan -> assertPlans(List.of(plan), FILTERED_PAGE_COST, "idx_books_author"));
+    }
+
+    @Test
+    void bookFindAllByTitlePrefix_useTitleAuthorIndex() {
+        assertPlans(explain(() -> bookRepository.findAllAsDTO(
+                        BookSpecifications.matches(new BookFilterDTO(null, "Title 4242", null, true)),
+                        PageRequest.of(0, 20, Sort.by("title")))),
+                FILTERED_PAGE_COST, "idx_books_title_author");
+    }
+
+    @Test
+    void bookFindAllByTitlePrefixUnsorted_useTitlePrefixIndex() {
+        assertPlans(explain(() -> bookRepository.findAllAsDTO(
+                        BookSpecifications.matches(new BookFilterDTO(null, "Title 4242", null, null)),
+                        PageRequest.of(0, 20))),
+                FILTERED_PAGE_COST, "idx_books_title_prefix");
+    }
+
+    @Test
+    void memberFindAllByName_useNameIndexForPageAndCount() {
+        List<QueryPlan> plans = explain(() -> memberRepository.findAllRowsByName("Member 42", PageRequest.of(1, 20)));
+
+        assertEquals(2, plans.size());
+        plans.forEach(plan -> assertPlans(List.of(plan), POINT_QUERY_COST, "idx_members_name"));
+    }
+
+    @Test
+    void memberFindIdForUpdate_usePrimaryKey() {
+        assertPlans(explain(() -> memberRepository.findIdForUpdate(42L)), POINT_QUERY_COST, "members_pkey");
+    }
+
+    @Test
+    void loanFindNotMarkedOverdueIds_useOverdueDueAtIndex() {
+        assertPlans(explain(() -> loanRepository.findNotMarkedOverdueIds(LocalDateTime.now(), PageRequest.of(0, 500))),
+                1_500, "idx_loans_overdue_due_at");
+    }
+
+    @Test
+    void loanFindAllByOverdueTrue_useOverdueDueAtIndex() {
+        assertPlans(explain(() -> loanRepository.findAllByOverdueTrue(PageRequest.of(0, 20))),
+                1_500, "idx_loans_overdue_due_at");
+    }
+
+    @Test
+    void loanQueriesByMember_useMemberBookIndex() {
+        assertPlans(explain(() -> loanRepository.findBorrowedBooksByMemberId(42L)),
+                POINT_QUERY_COST, "uk_loans_member_id_book_id", "books_pkey");
+        assertPlans(explain(() -> loanRepository.countByMemberId(42L)), POINT_QUERY_COST, "uk_loans_member_id_book_id");
+        assertPlans(explain(() -> loanRepository.existsByMemberId(42L)), POINT_QUERY_COST, "uk_loans_member_id_book_id");
+        // either index narrows the delete down to one row
+        assertPlans(explain(() -> loanRepository.deleteByMemberIdAndBookId(42L, 86L)), POINT_QUERY_COST);
+    }
+
+    @Test
+    void loanMarkOverdue_usePrimaryKey() {
+        assertPlans(explain(() -> loanRepository.markOverdue(List.of(1L, 2L, 3L))), POINT_QUERY_COST, "loans_pkey");
+    }
+
+    @Test
+    void stockSlotQueries_useBookSlotIndex() {
+        String index = "uk_stock_slots_book_id_slot";
+
+        assertPlans(explain(() -> stockSlotRepository.countByBookId(42L)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> stockSlotRepository.sumAmountByBookId(42L)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> stockSlotRepository.findAllByBookId(42L)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> stockSlotRepository.decreaseRandomUnlockedSlot(42L)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> stockSlotRepository.decreaseRandomSlot(42L)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> stockSlotRepository.increaseRandomUnlockedSlot(42L, 1)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> stockSlotRepository.increaseRandomSlot(42L, 1)), POINT_QUERY_COST, index);
+    }
+
+    @Test
+    void branchStockQueries_useBookBranchIndex() {
+        String index = "uk_branch_stocks_book_id_branch_id";
+
+        assertPlans(explain(() -> branchStockRepository.findAllByBookIdWithBranch(42L)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> branchStockRepository.sumAmountByBookId(42L)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> branchStockRepository.decreaseAmount(42L, 1L, 1)), POINT_QUERY_COST, index);
+        assertPlans(explain(() -> branchStockRepository.increaseAmount(42L, 1L, 1)), POINT_QUERY_COST, index);
+    }
+
+    /**
+     * Runs {@code call} and explains every statement it sent to the database.
+     */
+    private List<QueryPlan> explain(
+            Runnable call
+    ) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        call.run();
+
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), "No statements were executed");
+
+        List<QueryPlan> plans = new ArrayList<>(statements.size());
+        for (String sql : statements) {
+            String json = jdbcTemplate.queryForObject(
+                    "explain (generic_plan, format json) " + toNumberedParameters(sql),
+                    String.class);
+            try {
+                plans.add(new QueryPlan(sql, OBJECT_MAPPER.readTree(json).get(0).get("Plan")));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Can't parse plan of " + sql, e);
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Generic plans take {@code $1, $2, ...} instead of JDBC {@code ?} placeholders.
+     */
+    private static String toNumberedParameters(
+            String sql
+    ) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static void assertPlans(
+            List<QueryPlan> plans,
+            double maxCost,
+            String... requiredIndexes
+    ) {
+        Set<String> usedIndexes = new HashSet<>();
+        for (QueryPlan plan : plans) {
+            Set<String> seqScanned = new HashSet<>(plan.seqScannedTables());
+            seqScanned.removeAll(SMALL_TABLES);
+
+            assertTrue(seqScanned.isEmpty(), () -> "Sequential scan of " + seqScanned + " in\n" + plan);
+            assertTrue(plan.totalCost() <= maxCost, () -> "Cost above " + maxCost + " in\n" + plan);
+            usedIndexes.addAll(plan.indexes());
+        }
+
+        for (String index : requiredIndexes) {
+            assertTrue(usedIndexes.contains(index), () -> "Index " + index + " not used in\n" + plans);
+        }
+    }
+}
@@ -1,48 +1,85 @@
 package dev.nerdysoft_tech_task.service.impl;
 
 import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.BookFilterDTO;
 import dev.nerdysoft_tech_task.dto.BorrowedBookDTO;
+import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
 import dev.nerdysoft_tech_task.exception.CantBeDeletedException;
 import dev.nerdysoft_tech_task.exception.NotUniqueException;
+import dev.nerdysoft_tech_task.exception.UnsupportedSortException;
 import dev.nerdysoft_tech_task.mapper.BookMapper;
 import dev.nerdysoft_tech_task.model.Book;
-import dev.nerdysoft_tech_task.model.Member;
+import dev.nerdysoft_tech_task.model.Loan;
 import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.BranchStockRepository;
+import dev.nerdysoft_tech_task.repository.StockSlotRepository;
+import dev.nerdysoft_tech_task.service.StockSlotService;
+import dev.nerdysoft_tech_task.validation.BookDTOValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceImplTest {
 
+    private static final BookFilterDTO NO_FILTER = new BookFilterDTO(null, null, null, null);
+
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BranchStockRepository branchStockRepository;
+
+    @Mock
+    private StockSlotRepository stockSlotRepository;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Mock
+    private HotBookDetector hotBookDetector;
+
+    @Mock
+    private AvailabilityCounters availabilityCounters;
+
     @Mock
     private BookMapper bookMapper;
 
+    @Spy
+    private BookDTOValidator bookDTOValidator = new BookDTOValidator();
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
     @InjectMocks
     private BookServiceImpl bookService;
 
     @Test
     void findById_whenFound_returnBookDto() {
-        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>());
+        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
         BookDTO expected = new BookDTO(1L, "Title", "Name Surname", 1);
 
         when(bookRepository.findById(1L))
@@ -59,45 +96,43 @@ class BookServiceImplTest {
 
     @Test
     void findAll_whenSuccessfully_returnPageOfBookDTO() {
-        List<Book> books = List.of(
-                new Book(1L, "Title1", "Name Surname1", 10, new HashSet<>()),
-                new Book(2L, "Title2", "Name Surname2", 5, new HashSet<>()),
-                new Book(3L, "Title3", "Name Surname3", 13, new HashSet<>())
-        );
         List<BookDTO> bookDTOS = List.of(
                 new BookDTO(1L, "Title1", "Name Surname1", 10),
                 new BookDTO(2L, "Title2", "Name Surname2", 5),
                 new BookDTO(3L, "Title3", "Name Surname3", 13)
         );
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> page =  new PageImpl<>(books, pageable, bookDTOS.size());
         Page<BookDTO> expected =  new PageImpl<>(bookDTOS, pageable, bookDTOS.size());
 
-        when(bookRepository.findAll(pageable))
-                .thenReturn(page);
-        when(bookMapper.toDTO(books.get(0)))
-                .thenReturn(bookDTOS.get(0));
-        when(bookMapper.toDTO(books.get(1)))
-                .thenReturn(bookDTOS.get(1));
-        when(bookMapper.toDTO(books.get(2)))
-                .thenReturn(bookDTOS.get(2));
+        when(bookRepository.findAllAsDTO(any(), eq(pageable)))
+                .thenReturn(expected);
 
-        Page<BookDTO> actual = bookService.findAll(pageable);
+        Page<BookDTO> actual = bookService.findAll(NO_FILTER, pageable);
 
         assertEquals(expected, actual);
-        verify(bookRepository).findAll(pageable);
-        verify(bookMapper, times(3)).toDTO(any(Book.class));
+        verify(bookRepository).findAllAsDTO(any(), eq(pageable));
+        verifyNoInteractions(bookMapper);
+    }
+
+    @Test
+    void findAll_whenSortedByNotIndexedProperty_throwsUnsupportedSortException() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("title", "amount"));
+
+        assertThrows(UnsupportedSortException.class,
+                () -> bookService.findAll(NO_FILTER, pageable));
+
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
     void findAllBorrowedBooksTitles_whenShowAmountBorrowedIsTrue_returnBorrowedBookDTOsWithoutAmount() {
-        Set<Member> borrowingMemberIs1 = Set.of(mock(Member.class));
+        Set<Loan> loansAmountIs1 = Set.of(mock(Loan.class));
         List<Book> books = List.of(
-                new Book(1L, "Title1", "Name Surname1", 1, borrowingMemberIs1),
-                new Book(11L, "Title1", "Name Surname11", 11, borrowingMemberIs1),
-                new Book(2L, "Title2", "Name Surname2", 2, borrowingMemberIs1),
-                new Book(3L, "Title3", "Name Surname3", 3, borrowingMemberIs1),
-                new Book(4L, "Title4", "Name Surname4", 4, borrowingMemberIs1)
+                new Book(1L, "Title1", "Name Surname1", 1, loansAmountIs1, false, null),
+                new Book(11L, "Title1", "Name Surname11", 11, loansAmountIs1, false, null),
+                new Book(2L, "Title2", "Name Surname2", 2, loansAmountIs1, false, null),
+                new Book(3L, "Title3", "Name Surname3", 3, loansAmountIs1, false, null),
+                new Book(4L, "Title4", "Name Surname4", 4, loansAmountIs1, false, null)
         );
         Set<BorrowedBookDTO> expected = Set.of(
                 new BorrowedBookDTO("Title1", null),
@@ -117,20 +152,20 @@ class BookServiceImplTest {
 
     @Test
     void findAllBorrowedBooksTitles_whenShowAmountBorrowedIsFalse_returnBorrowedBookDTOsWithBorrowedAmountSumByName() {
-        Set<Member> borrowingMemberIs1 = Set.of(mock(Member.class));
-        Set<Member> borrowingMemberIs11 = Set.of(
-                mock(Member.class), mock(Member.class), mock(Member.class), mock(Member.class),
-                mock(Member.class), mock(Member.class), mock(Member.class), mock(Member.class),
-                mock(Member.class), mock(Member.class), mock(Member.class));
-        Set<Member> borrowingMemberIs2 = Set.of(mock(Member.class), mock(Member.class));
-        Set<Member> borrowingMemberIs3 = Set.of(mock(Member.class), mock(Member.class), mock(Member.class));
-        Set<Member> borrowingMemberIs0 = new HashSet<>();
+        Set<Loan> loansAmountIs1 = Set.of(mock(Loan.class));
+        Set<Loan> loansAmountIs11 = Set.of(
+                mock(Loan.class), mock(Loan.class), mock(Loan.class), mock(Loan.class),
+                mock(Loan.class), mock(Loan.class), mock(Loan.class), mock(Loan.class),
+                mock(Loan.class), mock(Loan.class), mock(Loan.class));
+        Set<Loan> loansAmountIs2 = Set.of(mock(Loan.class), mock(Loan.class));
+        Set<Loan> loansAmountIs3 = Set.of(mock(Loan.class), mock(Loan.class), mock(Loan.class));
+        Set<Loan> loansAmountIs0 = new HashSet<>();
         List<Book> books = List.of(
-                new Book(1L, "Title1", "Name Surname1", 1, borrowingMemberIs1),
-                new Book(11L, "Title1", "Name Surname11", 11, borrowingMemberIs11),
-                new Book(2L, "Title2", "Name Surname2", 2, borrowingMemberIs2),
-                new Book(3L, "Title3", "Name Surname3", 3, borrowingMemberIs3),
-                new Book(4L, "Title4", "Name Surname4", 4, borrowingMemberIs0)
+                new Book(1L, "Title1", "Name Surname1", 1, loansAmountIs1, false, null),
+                new Book(11L, "Title1", "Name Surname11", 11, loansAmountIs11, false, null),
+                new Book(2L, "Title2", "Name Surname2", 2, loansAmountIs2, false, null),
+                new Book(3L, "Title3", "Name Surname3", 3, loansAmountIs3, false, null),
+                new Book(4L, "Title4", "Name Surname4", 4, loansAmountIs0, false, null)
         );
         Set<BorrowedBookDTO> expected = Set.of(
                 new BorrowedBookDTO("Title1", 12),
@@ -149,7 +184,7 @@ class BookServiceImplTest {
 
     @Test
     void createBook_whenNewBookCreated_returnNewBookDTO() {
-        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>());
+        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
         BookDTO expected = new BookDTO(1L, "Title", "Name Surname", 1);
 
         when(bookRepository.findByTitleAndAuthor(expected.title(), expected.author()))
@@ -165,12 +200,13 @@ class BookServiceImplTest {
         verify(bookRepository).findByTitleAndAuthor(expected.title(), expected.author());
         verify(bookRepository).save(any(Book.class));
         verify(bookMapper).toDTO(book);
+        verify(availabilityCounters).titleAdded();
     }
 
     @Test
     void createBook_whenBookWithSameTitleAndAuthorIsAlreadyCreated_returnAlreadyCreatedBookDTOWithAmountPlus1() {
-        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>());
-        Book bookWithAmount2 = new Book(1L, "Title", "Name Surname", 2, new HashSet<>());
+        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
+        Book bookWithAmount2 = new Book(1L, "Title", "Name Surname", 2, new HashSet<>(), false, null);
         BookDTO dto = new BookDTO(1L, "Title", "Name Surname", 1);
         BookDTO expected = new BookDTO(1L, "Title", "Name Surname", 2);
 
@@ -187,13 +223,57 @@ class BookServiceImplTest {
         verify(bookRepository).findByTitleAndAuthor(dto.title(), dto.author());
         verify(bookRepository).save(any(Book.class));
         verify(bookMapper).toDTO(book);
+        verify(availabilityCounters).copiesChanged(1);
+    }
+
+    @Test
+    void importBooks_whenAllValid_createEveryBook() throws BindException {
+        BookDTO dto1 = new BookDTO(null, "Title", "Name Surname", null);
+        BookDTO dto2 = new BookDTO(null, "Other", "Name Surname", null);
+        Book book1 = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
+        Book book2 = new Book(2L, "Other", "Name Surname", 1, new HashSet<>(), false, null);
+        BookDTO expected1 = new BookDTO(1L, "Title", "Name Surname", 1);
+        BookDTO expected2 = new BookDTO(2L, "Other", "Name Surname", 1);
+
+        when(bookRepository.findByTitleAndAuthor(any(), any()))
+                .thenReturn(Optional.empty());
+        when(bookRepository.save(any(Book.class)))
+                .thenReturn(book1)
+                .thenReturn(book2);
+        when(bookMapper.toDTO(book1))
+                .thenReturn(expected1);
+        when(bookMapper.toDTO(book2))
+                .thenReturn(expected2);
+
+        List<BookDTO> actual = bookService.importBooks(List.of(dto1, dto2));
+
+        assertEquals(List.of(expected1, expected2), actual);
+        verify(bookRepository, times(2)).save(any(Book.class));
+    }
+
+    @Test
+    void importBooks_whenOneEntryIsInvalid_throwsBindExceptionAndImportNothing() {
+        BookDTO valid = new BookDTO(null, "Title", "Name Surname", null);
+        BookDTO invalid = new BookDTO(null, "ti", "Name Surname", null);
+
+        BindException e = assertThrows(
+                BindException.class,
+                () -> bookService.importBooks(List.of(valid, invalid))
+        );
+
+        assertEquals(
+                Set.of("[1].title"),
+                e.getFieldErrors().stream().map(FieldError::getField).collect(Collectors.toSet())
+        );
+        assertEquals(2, e.getErrorCount());
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
     void updateBook_whenUpdated_returnUpdatedBookDTO() {
-        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>());
+        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
         BookDTO expected = new BookDTO(1L, "NewTitle", "NewName NewSurname", 32);
-        Book updatedBook = new Book(1L, "NewTitle", "NewName NewSurname", 32, new HashSet<>());
+        Book updatedBook = new Book(1L, "NewTitle", "NewName NewSurname", 32, new HashSet<>(), false, null);
 
         when(bookRepository.findById(1L))
                 .thenReturn(Optional.of(book));
@@ -213,10 +293,58 @@ class BookServiceImplTest {
         verify(bookMapper).toDTO(book);
     }
 
+    @Test
+    void updateBook_whenBookIsShardedAndAmountDecreased_takeCopyFromStockSlots() {
+        Book book = new Book(1L, "Title", "Name Surname", 0, new HashSet<>(), true, 5);
+        BookDTO dto = new BookDTO(1L, "Title", "Name Surname", 4);
+
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(book));
+        when(bookRepository.findByTitleAndAuthor(dto.title(), dto.author()))
+                .thenReturn(Optional.of(book));
+        when(stockSlotService.take(1L, 1))
+                .thenReturn(true);
+        when(stockSlotService.sumSlotsAmount(1L))
+                .thenReturn(4L);
+        when(bookRepository.save(book))
+                .thenReturn(book);
+        when(bookMapper.toDTO(book))
+                .thenReturn(dto);
+
+        BookDTO actual = bookService.updateBook(1L, dto);
+
+        assertEquals(dto, actual);
+        assertEquals(0, book.getAmount());
+        assertEquals(4, book.getAvailableAmount());
+        verify(stockSlotService).take(1L, 1);
+        verify(hotBookDetector).updateStarted(1L);
+        verify(hotBookDetector).updateFinished(1L);
+    }
+
+    @Test
+    void updateBook_whenBookIsShardedAndStockSlotsAreEmpty_throwsBookCantBeBorrowedException() {
+        Book book = new Book(1L, "Title", "Name Surname", 0, new HashSet<>(), true, 1);
+        BookDTO dto = new BookDTO(1L, "Title", "Name Surname", 0);
+
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(book));
+        when(bookRepository.findByTitleAndAuthor(dto.title(), dto.author()))
+                .thenReturn(Optional.of(book));
+        when(stockSlotService.take(1L, 1))
+                .thenReturn(false);
+
+        assertThrows(
+                BookCantBeBorrowedException.class,
+                () -> bookService.updateBook(1L, dto)
+        );
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(hotBookDetector).updateFinished(1L);
+    }
+
     @Test
     void updateBook_whenBookWithNewTitleAndNewAuthorIsAlreadyExist_throwsNotUniqueException() {
-        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>());
-        Book bookWithSameTitleAndAuthor = new Book(3L, "Title", "Name Surname", 23, new HashSet<>());
+        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
+        Book bookWithSameTitleAndAuthor = new Book(3L, "Title", "Name Surname", 23, new HashSet<>(), false, null);
         BookDTO dto = new BookDTO(1L, "NewTitle", "NewName NewSurname", 32);
 
         when(bookRepository.findById(1L))
@@ -234,22 +362,27 @@ class BookServiceImplTest {
 
     @Test
     void deleteBook_whenDeleted_returnNothing() {
-        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>());
+        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
 
         when(bookRepository.findById(1L))
                 .thenReturn(Optional.of(book));
+        when(branchStockRepository.sumAmountByBookId(1L))
+                .thenReturn(3L);
         doNothing().when(bookRepository)
                 .delete(book);
 
         bookService.deleteBook(1L);
 
         verify(bookRepository).findById(1L);
+        verify(branchStockRepository).deleteAllByBookId(1L);
+        verify(stockSlotRepository).deleteAllByBookId(1L);
         verify(bookRepository).delete(book);
+        verify(availabilityCounters).titleRemoved(4);
     }
 
     @Test
     void deleteBook_whenBookIsBorrowedBySomeMember_throwsCantBeDeletedException() {
-        Book book = new Book(1L, "Title", "Name Surname", 1, Set.of(mock(Member.class)));
+        Book book = new Book(1L, "Title", "Name Surname", 1, Set.of(mock(Loan.class)), false, null);
 
         when(bookRepository.findById(1L))
                 .thenReturn(Optional.of(book));
@@ -0,0 +1,62 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.BranchDTO;
+import dev.nerdysoft_tech_task.exception.NotUniqueException;
+import dev.nerdysoft_tech_task.mapper.BranchMapper;
+import dev.nerdysoft_tech_task.model.Branch;
+import dev.nerdysoft_tech_task.repository.BranchRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BranchServiceImplTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private BranchMapper branchMapper;
+
+    @InjectMocks
+    private BranchServiceImpl branchService;
+
+    @Test
+    void createBranch_whenCreated_returnNewBranchDTO() {
+        Branch branch = new Branch(1L, "Downtown");
+        BranchDTO expected = new BranchDTO(1L, "Downtown");
+
+        when(branchRepository.existsByName("Downtown"))
+                .thenReturn(false);
+        when(branchRepository.save(any(Branch.class)))
+                .thenReturn(branch);
+        when(branchMapper.toDTO(branch))
+                .thenReturn(expected);
+
+        BranchDTO actual = branchService.createBranch(new BranchDTO(null, "Downtown"));
+
+        assertEquals(expected, actual);
+        verify(branchRepository).existsByName("Downtown");
+        verify(branchRepository).save(any(Branch.class));
+    }
+
+    @Test
+    void createBranch_whenBranchWithSameNameExists_throwsNotUniqueException() {
+        when(branchRepository.existsByName("Downtown"))
+                .thenReturn(true);
+
+        assertThrows(
+                NotUniqueException.class,
+                () -> branchService.createBranch(new BranchDTO(null, "Downtown"))
+        );
+
+        verify(branchRepository, never()).save(any(Branch.class));
+    }
+}
@@ -0,0 +1,164 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.BookAvailabilityDTO;
+import dev.nerdysoft_tech_task.dto.BranchStockDTO;
+import dev.nerdysoft_tech_task.dto.StockTransferDTO;
+import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
+import dev.nerdysoft_tech_task.exception.CantBeTransferredException;
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import dev.nerdysoft_tech_task.mapper.BranchMapper;
+import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.model.Branch;
+import dev.nerdysoft_tech_task.model.BranchStock;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.BranchRepository;
+import dev.nerdysoft_tech_task.repository.BranchStockRepository;
+import dev.nerdysoft_tech_task.service.StockSlotService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private BranchStockRepository branchStockRepository;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Mock
+    private BranchMapper branchMapper;
+
+    @InjectMocks
+    private InventoryServiceImpl inventoryService;
+
+    @Test
+    void findAvailability_whenFound_returnCentralAndBranchesAmountWithTotal() {
+        Book book = new Book(1L, "Title", "Name Surname", 4, new HashSet<>(), false, null);
+        Branch branch1 = new Branch(1L, "Downtown");
+        Branch branch2 = new Branch(2L, "Uptown");
+        BranchStock stock1 = new BranchStock(1L, book, branch1, 5);
+        BranchStock stock2 = new BranchStock(2L, book, branch2, 2);
+        BranchStockDTO stockDto1 = new BranchStockDTO(1L, "Downtown", 5);
+        BranchStockDTO stockDto2 = new BranchStockDTO(2L, "Uptown", 2);
+        BookAvailabilityDTO expected = new BookAvailabilityDTO(1L, 4, 11L, List.of(stockDto1, stockDto2));
+
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(book));
+        when(branchStockRepository.findAllByBookIdWithBranch(1L))
+                .thenReturn(List.of(stock1, stock2));
+        when(branchMapper.toDTO(stock1))
+                .thenReturn(stockDto1);
+        when(branchMapper.toDTO(stock2))
+                .thenReturn(stockDto2);
+
+        BookAvailabilityDTO actual = inventoryService.findAvailability(1L);
+
+        assertEquals(expected, actual);
+        verify(bookRepository).findById(1L);
+        verify(branchStockRepository).findAllByBookIdWithBranch(1L);
+    }
+
+    @Test
+    void transfer_whenFromCentralToBranch_decreaseCentralAndUpsertBranchStock() {
+        Book book = new Book(1L, "Title", "Name Surname", 1, new HashSet<>(), false, null);
+        StockTransferDTO dto = new StockTransferDTO(null, 2L, 3);
+
+        when(bookRepository.existsById(1L))
+                .thenReturn(true);
+        when(branchRepository.existsById(2L))
+                .thenReturn(true);
+        when(stockSlotService.take(1L, 3))
+                .thenReturn(true);
+        when(branchStockRepository.increaseAmount(1L, 2L, 3))
+                .thenReturn(1);
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(book));
+
+        inventoryService.transfer(1L, dto);
+
+        verify(stockSlotService).take(1L, 3);
+        verify(branchStockRepository).increaseAmount(1L, 2L, 3);
+        verify(branchStockRepository, never()).save(any());
+    }
+
+    @Test
+    void transfer_whenNotEnoughCopiesInSource_throwsCantBeTransferredException() {
+        StockTransferDTO dto = new StockTransferDTO(1L, 2L, 3);
+
+        when(bookRepository.existsById(1L))
+                .thenReturn(true);
+        when(branchRepository.existsById(anyLong()))
+                .thenReturn(true);
+        when(branchStockRepository.decreaseAmount(1L, 1L, 3))
+                .thenReturn(0);
+
+        assertThrows(
+                CantBeTransferredException.class,
+                () -> inventoryService.transfer(1L, dto)
+        );
+
+        verify(branchStockRepository, never()).increaseAmount(any(), any(), anyInt());
+    }
+
+    @Test
+    void transfer_whenSourceAndTargetAreTheSame_throwsCantBeTransferredException() {
+        StockTransferDTO dto = new StockTransferDTO(null, null, 3);
+
+        when(bookRepository.existsById(1L))
+                .thenReturn(true);
+
+        assertThrows(
+                CantBeTransferredException.class,
+                () -> inventoryService.transfer(1L, dto)
+        );
+
+        verifyNoInteractions(stockSlotService);
+    }
+
+    @Test
+    void takeCopy_whenBranchHasNoCopies_throwsBookCantBeBorrowedException() {
+        when(branchRepository.existsById(2L))
+                .thenReturn(true);
+        when(branchStockRepository.decreaseAmount(1L, 2L, 1))
+                .thenReturn(0);
+
+        assertThrows(
+                BookCantBeBorrowedException.class,
+                () -> inventoryService.takeCopy(1L, 2L)
+        );
+
+        verify(branchStockRepository).decreaseAmount(1L, 2L, 1);
+    }
+
+    @Test
+    void returnCopy_whenBranchNotFound_throwsNotFoundException() {
+        when(branchRepository.existsById(2L))
+                .thenReturn(false);
+
+        assertThrows(
+                NotFoundException.class,
+                () -> inventoryService.returnCopy(1L, 2L)
+        );
+
+        verifyNoInteractions(branchStockRepository);
+    }
+}
@@ -0,0 +1,93 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.LoanDTO;
+import dev.nerdysoft_tech_task.mapper.LoanMapper;
+import dev.nerdysoft_tech_task.model.Loan;
+import dev.nerdysoft_tech_task.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanServiceImplTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanMapper loanMapper;
+
+    @InjectMocks
+    private LoanServiceImpl loanService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(loanService, "overdueScanBatchSize", 2);
+    }
+
+    @Test
+    void findOverdue_whenSuccessfully_returnPageOfLoanDTO() {
+        LocalDateTime dueAt = LocalDateTime.now().minusDays(1);
+        Loan loan = Loan.builder().id(1L).borrowedAt(dueAt.minusDays(14)).dueAt(dueAt).overdue(true).build();
+        LoanDTO dto = new LoanDTO(1L, 1L, 1L, dueAt.minusDays(14).toString(), dueAt.toString());
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<Loan> page = new PageImpl<>(List.of(loan), pageable, 1);
+        Page<LoanDTO> expected = new PageImpl<>(List.of(dto), pageable, 1);
+
+        when(loanRepository.findAllByOverdueTrue(pageable))
+                .thenReturn(page);
+        when(loanMapper.toDTO(loan))
+                .thenReturn(dto);
+
+        Page<LoanDTO> actual = loanService.findOverdue(pageable);
+
+        assertEquals(expected, actual);
+        verify(loanRepository).findAllByOverdueTrue(pageable);
+        verify(loanMapper).toDTO(loan);
+    }
+
+    @Test
+    void markOverdueLoans_whenMoreLoansThanBatchSize_markAllInSeveralBatches() {
+        when(loanRepository.findNotMarkedOverdueIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(loanRepository.markOverdue(List.of(1L, 2L)))
+                .thenReturn(2);
+        when(loanRepository.markOverdue(List.of(3L)))
+                .thenReturn(1);
+
+        int actual = loanService.markOverdueLoans();
+
+        assertEquals(3, actual);
+        verify(loanRepository, times(2)).findNotMarkedOverdueIds(any(LocalDateTime.class), eq(PageRequest.ofSize(2)));
+        verify(loanRepository).markOverdue(List.of(1L, 2L));
+        verify(loanRepository).markOverdue(List.of(3L));
+    }
+
+    @Test
+    void markOverdueLoans_whenNoLoansAreOverdue_markNothing() {
+        when(loanRepository.findNotMarkedOverdueIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        int actual = loanService.markOverdueLoans();
+
+        assertEquals(0, actual);
+        verify(loanRepository).findNotMarkedOverdueIds(any(LocalDateTime.class), any(Pageable.class));
+        verify(loanRepository, never()).markOverdue(any());
+    }
+}
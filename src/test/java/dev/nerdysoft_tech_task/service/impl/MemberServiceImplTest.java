@@ -4,24 +4,33 @@ import dev.nerdysoft_tech_task.dto.BookDTO;
 import dev.nerdysoft_tech_task.dto.MemberDTO;
 import dev.nerdysoft_tech_task.exception.BookCantBeBorrowedException;
 import dev.nerdysoft_tech_task.exception.CantBeDeletedException;
+import dev.nerdysoft_tech_task.exception.NotFoundException;
 import dev.nerdysoft_tech_task.mapper.BookMapper;
 import dev.nerdysoft_tech_task.mapper.MemberMapper;
 import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.model.Loan;
 import dev.nerdysoft_tech_task.model.Member;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.LoanRepository;
 import dev.nerdysoft_tech_task.repository.MemberRepository;
-import dev.nerdysoft_tech_task.service.BookService;
+import dev.nerdysoft_tech_task.repository.MemberRow;
+import dev.nerdysoft_tech_task.service.InventoryService;
+import dev.nerdysoft_tech_task.service.StockSlotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
@@ -39,22 +48,43 @@ class MemberServiceImplTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
     @Mock
     private MemberMapper memberMapper;
 
     @Mock
-    private BookService bookService;
+    private InventoryService inventoryService;
+
+    @Mock
+    private StockSlotService stockSlotService;
+
+    @Mock
+    private HotBookDetector hotBookDetector;
+
+    @Mock
+    private AvailabilityCounters availabilityCounters;
 
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private MemberWriteBehind memberWriteBehind;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
     @InjectMocks
     private MemberServiceImpl memberService;
 
 
     @Test
     void findById_whenFound_returnMember() {
-        Member member = new Member(1L, "Name", LocalDateTime.now(), new HashSet<>());
+        Member member = new Member(1L, "Name", LocalDateTime.now());
         MemberDTO expected = new MemberDTO(1L, "Name", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(member.getMembershipDate()));
 
         when(memberRepository.findById(1L))
@@ -71,18 +101,18 @@ class MemberServiceImplTest {
 
     @Test
     void findMemberBooks_whenFound_returnBorrowedBooksByMember() {
-        Book book1 = new Book(1L, "Title1", "Name Surname1", 10, new HashSet<>());
-        Book book2 = new Book(2L, "Title2", "Name Surname2", 5, new HashSet<>());
-        Book book3 = new Book(3L, "Title3", "Name Surname3", 13, new HashSet<>());
-        Set<Book> books = Set.of(book1, book2, book3);
+        Book book1 = new Book(1L, "Title1", "Name Surname1", 10, new HashSet<>(), false, null);
+        Book book2 = new Book(2L, "Title2", "Name Surname2", 5, new HashSet<>(), false, null);
+        Book book3 = new Book(3L, "Title3", "Name Surname3", 13, new HashSet<>(), false, null);
         BookDTO dto1 = new BookDTO(1L, "Title1", "Name Surname1", 10);
         BookDTO dto2 = new BookDTO(2L, "Title2", "Name Surname2", 5);
         BookDTO dto3 = new BookDTO(3L, "Title3", "Name Surname3", 13);
         Set<BookDTO> expected = Set.of(dto1, dto2, dto3);
-        Member member = new Member(1L, "Name", LocalDateTime.now(), books);
 
-        when(memberRepository.findById(1L))
-                .thenReturn(Optional.of(member));
+        when(memberRepository.existsById(1L))
+                .thenReturn(true);
+        when(loanRepository.findBorrowedBooksByMemberId(1L))
+                .thenReturn(List.of(book1, book2, book3));
         when(bookMapper.toDTO(book1))
                 .thenReturn(dto1);
         when(bookMapper.toDTO(book2))
@@ -93,74 +123,74 @@ class MemberServiceImplTest {
         Set<BookDTO> actual = memberService.findMemberBooks(1L);
 
         assertEquals(expected, actual);
-        verify(memberRepository).findById(1L);
+        verify(memberRepository).existsById(1L);
+        verify(loanRepository).findBorrowedBooksByMemberId(1L);
         verify(bookMapper, times(3)).toDTO(any(Book.class));
     }
 
     @Test
     void findAll_whenNameIsNull_returnAllMembers() {
-        List<Member> members = List.of(
-                new Member(1L, "Name1", LocalDateTime.now(), new HashSet<>()),
-                new Member(2L, "Name2", LocalDateTime.now(), new HashSet<>()),
-                new Member(3L, "Name3", LocalDateTime.now(), new HashSet<>())
+        List<MemberRow> rows = List.of(
+                new MemberRow(1L, "Name1", LocalDateTime.now()),
+                new MemberRow(2L, "Name2", LocalDateTime.now()),
+                new MemberRow(3L, "Name3", LocalDateTime.now())
         );
         List<MemberDTO> membersDTOs = List.of(
-                new MemberDTO(1L, "Name1", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(members.get(0).getMembershipDate())),
-                new MemberDTO(2L, "Name2", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(members.get(1).getMembershipDate())),
-                new MemberDTO(3L, "Name3", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(members.get(2).getMembershipDate()))
+                new MemberDTO(1L, "Name1", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(rows.get(0).membershipDate())),
+                new MemberDTO(2L, "Name2", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(rows.get(1).membershipDate())),
+                new MemberDTO(3L, "Name3", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(rows.get(2).membershipDate()))
         );
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Member> page =  new PageImpl<>(members, pageable, membersDTOs.size());
+        Page<MemberRow> page =  new PageImpl<>(rows, pageable, membersDTOs.size());
         Page<MemberDTO> expected =  new PageImpl<>(membersDTOs, pageable, membersDTOs.size());
 
-        when(memberRepository.findAll(any(Specification.class), eq(pageable)))
+        when(memberRepository.findAllRows(pageable))
                 .thenReturn(page);
-        when(memberMapper.toDTO(members.get(0)))
+        when(memberMapper.toDTO(rows.get(0)))
                 .thenReturn(membersDTOs.get(0));
-        when(memberMapper.toDTO(members.get(1)))
+        when(memberMapper.toDTO(rows.get(1)))
                 .thenReturn(membersDTOs.get(1));
-        when(memberMapper.toDTO(members.get(2)))
+        when(memberMapper.toDTO(rows.get(2)))
                 .thenReturn(membersDTOs.get(2));
 
         Page<MemberDTO> actual = memberService.findAll(null, pageable);
 
         assertEquals(expected, actual);
-        verify(memberRepository).findAll(any(Specification.class), eq(pageable));
-        verify(memberMapper, times(3)).toDTO(any(Member.class));
+        verify(memberRepository).findAllRows(pageable);
+        verify(memberRepository, never()).findAllRowsByName(any(), any());
+        verify(memberMapper, times(3)).toDTO(any(MemberRow.class));
     }
 
     @Test
     void findAll_whenNameIsNotNull_returnAllMembersWithGIvenName() {
-        List<Member> members = List.of(
-                new Member(1L, "Name1", LocalDateTime.now(), new HashSet<>()),
-                new Member(4L, "Name1", LocalDateTime.now(), new HashSet<>())
+        List<MemberRow> rows = List.of(
+                new MemberRow(1L, "Name1", LocalDateTime.now()),
+                new MemberRow(4L, "Name1", LocalDateTime.now())
         );
         List<MemberDTO> membersDTOs = List.of(
-                new MemberDTO(1L, "Name1", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(members.get(0).getMembershipDate())),
-                new MemberDTO(4L, "Name1", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(members.get(1).getMembershipDate()))
+                new MemberDTO(1L, "Name1", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(rows.get(0).membershipDate())),
+                new MemberDTO(4L, "Name1", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(rows.get(1).membershipDate()))
         );
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Member> page =  new PageImpl<>(members, pageable, membersDTOs.size());
-        Page<MemberDTO> expected =  new PageImpl<>(membersDTOs, pageable, membersDTOs.size());
+        Page<MemberRow> page =  new PageImpl<>(rows, pageable, membersDTOs.size());
 
-        when(memberRepository.findAll(any(Specification.class), eq(pageable)))
+        when(memberRepository.findAllRowsByName("Name1", pageable))
                 .thenReturn(page);
-        when(memberMapper.toDTO(members.get(0)))
+        when(memberMapper.toDTO(rows.get(0)))
                 .thenReturn(membersDTOs.get(0));
-        when(memberMapper.toDTO(members.get(1)))
+        when(memberMapper.toDTO(rows.get(1)))
                 .thenReturn(membersDTOs.get(1));
 
         Page<MemberDTO> actual = memberService.findAll("Name1", pageable);
 
-        assertEquals(expected.getContent().get(0), actual.getContent().get(0));
-        assertEquals(expected.getContent().get(1), actual.getContent().get(1));
-        verify(memberRepository).findAll(any(Specification.class), eq(pageable));
-        verify(memberMapper, times(2)).toDTO(any(Member.class));
+        assertEquals(membersDTOs, actual.getContent());
+        verify(memberRepository).findAllRowsByName("Name1", pageable);
+        verify(memberMapper, times(2)).toDTO(any(MemberRow.class));
     }
 
     @Test
     void createMember_whenCreated_returnNewMember() {
-        Member member = new Member(1L, "Name", LocalDateTime.now(), new HashSet<>());
+        Member member = new Member(1L, "Name", LocalDateTime.now());
         MemberDTO expected = new MemberDTO(1L, "Name", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(member.getMembershipDate()));
 
         when(memberRepository.save(any(Member.class)))
@@ -177,10 +207,10 @@ class MemberServiceImplTest {
 
     @Test
     void updateMember_whenUpdated_returnUpdatedMemberDTO() {
-        Member member = new Member(1L, "Name", LocalDateTime.now(), new HashSet<>());
+        Member member = new Member(1L, "Name", LocalDateTime.now());
         MemberDTO expected = new MemberDTO(1L, "NewName", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(member.getMembershipDate()));
 
-        when(memberRepository.findById(1L))
+        when(memberRepository.findByIdForUpdate(1L))
                 .thenReturn(Optional.of(member));
         when(memberRepository.save(any(Member.class)))
                 .thenReturn(member);
@@ -190,17 +220,30 @@ class MemberServiceImplTest {
         MemberDTO actual = memberService.updateMember(1L, expected);
 
         assertEquals(expected, actual);
-        verify(memberRepository).findById(1L);
+        verify(memberRepository).findByIdForUpdate(1L);
         verify(memberRepository).save(any(Member.class));
         verify(memberMapper).toDTO(member);
+        verify(memberWriteBehind).discard(1L);
+    }
+
+    @Test
+    void updateMemberAsync_whenNameHasText_enqueueNameWithoutTouchingDatabase() {
+        MemberDTO dto = new MemberDTO(null, "NewName", null);
+
+        memberService.updateMemberAsync(1L, dto);
+
+        verify(memberWriteBehind).enqueue(1L, "NewName");
+        verifyNoInteractions(memberRepository);
     }
 
     @Test
     void deleteMember_whenDeleted_returnNothing() {
-        Member member = new Member(1L, "Name", LocalDateTime.now(), new HashSet<>());
+        Member member = new Member(1L, "Name", LocalDateTime.now());
 
         when(memberRepository.findById(1L))
                 .thenReturn(Optional.of(member));
+        when(loanRepository.existsByMemberId(1L))
+                .thenReturn(false);
         doNothing().when(memberRepository)
                 .delete(member);
 
@@ -212,10 +255,12 @@ class MemberServiceImplTest {
 
     @Test
     void deleteMember_whenMemberHasBorrowedBooks_throwsCantBeDeletedException() {
-        Member member = new Member(1L, "Name", LocalDateTime.now(), Set.of(mock(Book.class)));
+        Member member = new Member(1L, "Name", LocalDateTime.now());
 
         when(memberRepository.findById(1L))
                 .thenReturn(Optional.of(member));
+        when(loanRepository.existsByMemberId(1L))
+                .thenReturn(true);
 
         assertThrows(
                 CantBeDeletedException.class,
@@ -226,123 +271,194 @@ class MemberServiceImplTest {
     }
 
     @Test
-    void updateBorrowedBooks_whenBookWithGivenBookIdIsAlreadyBorrowedByMember_removeBookFromMembersBorrowedBooksAndReturnUpdatedSetOfMembersBorrowedBooks() {
-        Book book1 = new Book(1L, "Title1", "Name Surname1", 1, new HashSet<>());
-        Book book2 = new Book(2L, "Title2", "Name Surname2", 1, new HashSet<>());
-        Set<Book> twoBooks = new HashSet<>();
-        twoBooks.add(book1);
-        twoBooks.add(book2);
-        Set<Book> oneBook = new HashSet<>();
-        oneBook.add(book2);
-        Member memberWithTwoBooks = new Member(1L, "Name", LocalDateTime.now(), twoBooks);
-        Member memberWithOneBook = new Member(1L, "Name", memberWithTwoBooks.getMembershipDate(), oneBook);
-        BookDTO dto1 = new BookDTO(1L, "Title1", "Name Surname1", 1);
+    void updateBorrowedBooks_whenBookWithGivenBookIdIsAlreadyBorrowedByMember_deleteLoanAndReturnUpdatedSetOfMembersBorrowedBooks() {
+        Book book2 = new Book(2L, "Title2", "Name Surname2", 1, new HashSet<>(), false, null);
         BookDTO dto2 = new BookDTO(2L, "Title2", "Name Surname2", 2);
-        BookDTO updatedBookDto = new BookDTO(1L, "Title1", "Name Surname1", 2);
         Set<BookDTO> expected = Set.of(dto2);
 
-        when(memberRepository.findById(1L))
-                .thenReturn(Optional.of(memberWithTwoBooks));
-        when(bookService.findById(1L))
-                .thenReturn(dto1);
-        when(bookService.updateBook(eq(1L), any(BookDTO.class)))
-                .thenReturn(updatedBookDto);
-        when(memberRepository.save(memberWithOneBook))
-                .thenReturn(memberWithOneBook);
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.of(1L));
+        when(loanRepository.deleteByMemberIdAndBookId(1L, 1L))
+                .thenReturn(1);
+        when(loanRepository.findBorrowedBooksByMemberId(1L))
+                .thenReturn(List.of(book2));
         when(bookMapper.toDTO(book2))
                 .thenReturn(dto2);
 
-        Set<BookDTO> actual = memberService.updateBorrowedBooks(1L, 1L);
+        Set<BookDTO> actual = memberService.updateBorrowedBooks(1L, 1L, null);
 
         assertEquals(expected, actual);
-        verify(memberRepository).findById(1L);
-        verify(bookService).findById(1L);
-        verify(bookService).updateBook(eq(1L), any(BookDTO.class));
-        verify(memberRepository).save(any(Member.class));
+        verify(memberRepository).findIdForUpdate(1L);
+        verify(loanRepository).deleteByMemberIdAndBookId(1L, 1L);
+        verify(stockSlotService).put(1L, 1);
+        verify(hotBookDetector).updateStarted(1L);
+        verify(hotBookDetector).updateFinished(1L);
+        verify(loanRepository, never()).save(any(Loan.class));
+        verify(availabilityCounters).copyReturned(true);
         verify(bookMapper).toDTO(book2);
     }
 
     @Test
-    void updateBorrowedBooks_whenBookWithGivenBookIdIsNotBorrowedByMember_addBookToMembersBorrowedBooksAndReturnUpdatedSetOfMembersBorrowedBooks() {
+    void updateBorrowedBooks_whenBookWithGivenBookIdIsNotBorrowedByMember_insertLoanAndReturnUpdatedSetOfMembersBorrowedBooks() {
         ReflectionTestUtils.setField(memberService, "borrowLimit", 10);
-        Book book1 = new Book(1L, "Title1", "Name Surname1", 1, new HashSet<>());
-        Book book2 = new Book(2L, "Title2", "Name Surname2", 1, new HashSet<>());
-        Set<Book> twoBooks = new HashSet<>();
-        twoBooks.add(book1);
-        twoBooks.add(book2);
-        Set<Book> oneBook = new HashSet<>();
-        oneBook.add(book2);
-        Member memberWithTwoBooks = new Member(1L, "Name", LocalDateTime.now(), twoBooks);
-        Member memberWithOneBook = new Member(1L, "Name", memberWithTwoBooks.getMembershipDate(), oneBook);
-        BookDTO dto1 = new BookDTO(1L, "Title1", "Name Surname1", 1);
+        ReflectionTestUtils.setField(memberService, "loanPeriod", Duration.ofDays(14));
+        Member member = new Member(1L, "Name", LocalDateTime.now());
+        Book book1 = new Book(1L, "Title1", "Name Surname1", 0, new HashSet<>(), false, null);
+        Book book2 = new Book(2L, "Title2", "Name Surname2", 1, new HashSet<>(), false, null);
+        BookDTO updatedBookDto = new BookDTO(1L, "Title1", "Name Surname1", 0);
         BookDTO dto2 = new BookDTO(2L, "Title2", "Name Surname2", 2);
-        BookDTO updatedBookDto = new BookDTO(1L, "Title1", "Name Surname1", 2);
-        Set<BookDTO> expected = Set.of(dto1, dto2);
-
-        when(memberRepository.findById(1L))
-                .thenReturn(Optional.of(memberWithOneBook));
-        when(bookService.findById(1L))
-                .thenReturn(dto1);
-        when(bookService.updateBook(eq(1L), any(BookDTO.class)))
-                .thenReturn(updatedBookDto);
-        when(bookMapper.toEntity(updatedBookDto))
+        Set<BookDTO> expected = Set.of(updatedBookDto, dto2);
+
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.of(1L));
+        when(loanRepository.deleteByMemberIdAndBookId(1L, 1L))
+                .thenReturn(0);
+        when(loanRepository.countByMemberId(1L))
+                .thenReturn(1L);
+        when(stockSlotService.take(1L, 1))
+                .thenReturn(true);
+        when(memberRepository.getReferenceById(1L))
+                .thenReturn(member);
+        when(bookRepository.getReferenceById(1L))
                 .thenReturn(book1);
-        when(memberRepository.save(memberWithTwoBooks))
-                .thenReturn(memberWithTwoBooks);
+        when(loanRepository.findBorrowedBooksByMemberId(1L))
+                .thenReturn(List.of(book1, book2));
         when(bookMapper.toDTO(book1))
-                .thenReturn(dto1);
+                .thenReturn(updatedBookDto);
         when(bookMapper.toDTO(book2))
                 .thenReturn(dto2);
 
-        Set<BookDTO> actual = memberService.updateBorrowedBooks(1L, 1L);
+        Set<BookDTO> actual = memberService.updateBorrowedBooks(1L, 1L, null);
 
         assertEquals(expected, actual);
-        verify(memberRepository).findById(1L);
-        verify(bookService).findById(1L);
-        verify(bookService).updateBook(eq(1L), any(BookDTO.class));
-        verify(bookMapper).toEntity(updatedBookDto);
-        verify(memberRepository).save(memberWithTwoBooks);
-        verify(bookMapper).toDTO(book1);
-        verify(bookMapper).toDTO(book2);
+        ArgumentCaptor<Loan> loanCaptor = ArgumentCaptor.forClass(Loan.class);
+        verify(loanRepository).save(loanCaptor.capture());
+        Loan loan = loanCaptor.getValue();
+        assertEquals(member, loan.getMember());
+        assertEquals(book1, loan.getBook());
+        assertEquals(loan.getBorrowedAt().plusDays(14), loan.getDueAt());
+        verify(memberRepository).findIdForUpdate(1L);
+        verify(stockSlotService).take(1L, 1);
+        verify(hotBookDetector).updateFinished(1L);
+        verify(availabilityCounters).copyBorrowed(false);
     }
 
     @Test
-    void updateBorrowedBooks_whenBookWithGivenBookIdIsNotBorrowedByMemberAndBookAmountIsZero_throwsBookCantBeBorrowedException() {
-        Member memberWithOneBook = new Member(1L, "Name", LocalDateTime.now(), new HashSet<>());
+    void updateBorrowedBooks_whenBranchIdIsGivenAndBookIsNotBorrowedByMember_takeCopyFromBranchAndInsertLoan() {
+        ReflectionTestUtils.setField(memberService, "borrowLimit", 10);
+        ReflectionTestUtils.setField(memberService, "loanPeriod", Duration.ofDays(14));
+        Book book = new Book(1L, "Title1", "Name Surname1", 0, new HashSet<>(), false, null);
         BookDTO dto = new BookDTO(1L, "Title1", "Name Surname1", 0);
 
-        when(memberRepository.findById(1L))
-                .thenReturn(Optional.of(memberWithOneBook));
-        when(bookService.findById(1L))
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.of(1L));
+        when(bookRepository.existsById(1L))
+                .thenReturn(true);
+        when(loanRepository.deleteByMemberIdAndBookId(1L, 1L))
+                .thenReturn(0);
+        when(loanRepository.countByMemberId(1L))
+                .thenReturn(0L);
+        when(loanRepository.findBorrowedBooksByMemberId(1L))
+                .thenReturn(List.of(book));
+        when(bookMapper.toDTO(book))
                 .thenReturn(dto);
 
+        Set<BookDTO> actual = memberService.updateBorrowedBooks(1L, 1L, 2L);
+
+        assertEquals(Set.of(dto), actual);
+        verify(inventoryService).takeCopy(1L, 2L);
+        verifyNoInteractions(stockSlotService, hotBookDetector);
+        verify(loanRepository).save(any(Loan.class));
+    }
+
+    @Test
+    void updateBorrowedBooks_whenBranchIdIsGivenAndBookIsBorrowedByMember_returnCopyToBranchAndDeleteLoan() {
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.of(1L));
+        when(loanRepository.deleteByMemberIdAndBookId(1L, 1L))
+                .thenReturn(1);
+        when(loanRepository.findBorrowedBooksByMemberId(1L))
+                .thenReturn(List.of());
+
+        Set<BookDTO> actual = memberService.updateBorrowedBooks(1L, 1L, 2L);
+
+        assertEquals(Set.of(), actual);
+        verify(inventoryService).returnCopy(1L, 2L);
+        verifyNoInteractions(stockSlotService, hotBookDetector);
+    }
+
+    @Test
+    void updateBorrowedBooks_whenMemberNotFound_throwsNotFoundException() {
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.empty());
+
+        assertThrows(
+                NotFoundException.class,
+                () -> memberService.updateBorrowedBooks(1L, 1L, null)
+        );
+
+        verify(memberRepository).findIdForUpdate(1L);
+        verifyNoInteractions(bookRepository, loanRepository);
+    }
+
+    @Test
+    void updateBorrowedBooks_whenBookNotFound_throwsNotFoundException() {
+        ReflectionTestUtils.setField(memberService, "borrowLimit", 10);
+
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.of(1L));
+        when(stockSlotService.take(1L, 1))
+                .thenReturn(false);
+        when(bookRepository.existsById(1L))
+                .thenReturn(false);
+
+        assertThrows(
+                NotFoundException.class,
+                () -> memberService.updateBorrowedBooks(1L, 1L, null)
+        );
+
+        verify(loanRepository, never()).save(any(Loan.class));
+    }
+
+    @Test
+    void updateBorrowedBooks_whenBookWithGivenBookIdIsNotBorrowedByMemberAndBookAmountIsZero_throwsBookCantBeBorrowedException() {
+        ReflectionTestUtils.setField(memberService, "borrowLimit", 10);
+
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.of(1L));
+        when(bookRepository.existsById(1L))
+                .thenReturn(true);
+        when(stockSlotService.take(1L, 1))
+                .thenReturn(false);
+
         assertThrows(
                 BookCantBeBorrowedException.class,
-                () -> memberService.updateBorrowedBooks(1L, 1L)
+                () -> memberService.updateBorrowedBooks(1L, 1L, null)
         );
 
-        verify(memberRepository).findById(1L);
-        verify(bookService).findById(1L);
+        verify(memberRepository).findIdForUpdate(1L);
+        verify(stockSlotService).take(1L, 1);
+        verify(hotBookDetector).updateFinished(1L);
+        verify(loanRepository, never()).save(any(Loan.class));
     }
 
     @Test
     void updateBorrowedBooks_whenBookWithGivenBookIdIsNotBorrowedByMemberAndMemberBorrowedMaxAllowedAmountOfBooks_throwsBookCantBeBorrowedException() {
         ReflectionTestUtils.setField(memberService, "borrowLimit", 1);
-        Book book = new Book(2L, "Title2", "Name Surname2", 1, new HashSet<>());
-        Member memberWithOneBook = new Member(1L, "Name", LocalDateTime.now(), Set.of(book));
-        BookDTO dto = new BookDTO(1L, "Title", "Name Surname1", 1);
 
-        when(memberRepository.findById(1L))
-                .thenReturn(Optional.of(memberWithOneBook));
-        when(bookService.findById(1L))
-                .thenReturn(dto);
+        when(memberRepository.findIdForUpdate(1L))
+                .thenReturn(Optional.of(1L));
+        when(loanRepository.countByMemberId(1L))
+                .thenReturn(1L);
 
         assertThrows(
                 BookCantBeBorrowedException.class,
-                () -> memberService.updateBorrowedBooks(1L, 1L)
+                () -> memberService.updateBorrowedBooks(1L, 1L, null)
         );
 
-        verify(memberRepository).findById(1L);
-        verify(bookService).findById(1L);
+        verify(memberRepository).findIdForUpdate(1L);
+        verify(loanRepository).countByMemberId(1L);
+        verify(loanRepository, never()).save(any(Loan.class));
+        verifyNoInteractions(stockSlotService);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.exception.TooManyRequestsException;
+import dev.nerdysoft_tech_task.model.Member;
+import dev.nerdysoft_tech_task.repository.MemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberWriteBehindTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MemberWriteBehind memberWriteBehind;
+
+    @BeforeEach
+    void setUp() {
+        memberWriteBehind = new MemberWriteBehind(memberRepository, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(memberWriteBehind, "capacity", 2);
+        ReflectionTestUtils.setField(memberWriteBehind, "flushDelay", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(memberWriteBehind, "batchSize", 2);
+        memberWriteBehind.start();
+    }
+
+    @Test
+    void flush_whenMemberUpdatedSeveralTimes_writeOnlyLastName() {
+        Member member = new Member(1L, "Name", LocalDateTime.now());
+
+        when(memberRepository.findAllByIdForUpdate(Set.of(1L)))
+                .thenReturn(List.of(member));
+
+        memberWriteBehind.enqueue(1L, "First");
+        memberWriteBehind.enqueue(1L, "Second");
+        memberWriteBehind.flush();
+        memberWriteBehind.flush();
+
+        assertEquals("Second", member.getName());
+        verify(memberRepository).findAllByIdForUpdate(Set.of(1L));
+    }
+
+    @Test
+    void enqueue_whenCapacityReached_throwsTooManyRequestsExceptionForNewMembersOnly() {
+        memberWriteBehind.enqueue(1L, "First");
+        memberWriteBehind.enqueue(2L, "Second");
+
+        TooManyRequestsException e = assertThrows(
+                TooManyRequestsException.class,
+                () -> memberWriteBehind.enqueue(3L, "Third")
+        );
+
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+        memberWriteBehind.enqueue(2L, "Replaced");
+    }
+
+    @Test
+    void flush_whenWriteFails_keepPendingUpdatesForNextFlush() {
+        Member member = new Member(1L, "Name", LocalDateTime.now());
+
+        when(memberRepository.findAllByIdForUpdate(Set.of(1L)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of(member));
+
+        memberWriteBehind.enqueue(1L, "NewName");
+        memberWriteBehind.flush();
+        memberWriteBehind.flush();
+
+        assertEquals("NewName", member.getName());
+        verify(memberRepository, times(2)).findAllByIdForUpdate(Set.of(1L));
+    }
+
+    @Test
+    void flush_whenChangeDiscardedDuringFailedWrite_doNotRetryIt() {
+        when(memberRepository.findAllByIdForUpdate(Set.of(1L)))
+                .thenAnswer(invocation -> {
+                    memberWriteBehind.discard(1L);
+                    throw new QueryTimeoutException("timeout");
+                });
+
+        memberWriteBehind.enqueue(1L, "OldName");
+        memberWriteBehind.flush();
+        memberWriteBehind.flush();
+
+        verify(memberRepository).findAllByIdForUpdate(Set.of(1L));
+    }
+
+    @Test
+    void flush_whenNewerNameArrivesDuringWrite_keepNewerNamePending() {
+        Member member = new Member(1L, "Name", LocalDateTime.now());
+
+        when(memberRepository.findAllByIdForUpdate(Set.of(1L)))
+                .thenAnswer(invocation -> {
+                    memberWriteBehind.enqueue(1L, "Newer");
+                    return List.of(member);
+                })
+                .thenReturn(List.of(member));
+
+        memberWriteBehind.enqueue(1L, "Older");
+        memberWriteBehind.flush();
+        memberWriteBehind.flush();
+
+        assertEquals("Newer", member.getName());
+    }
+
+    @Test
+    void stop_whenUpdatesPending_flushThemBeforeShutdown() {
+        Member member1 = new Member(1L, "Name", LocalDateTime.now());
+
+        when(memberRepository.findAllByIdForUpdate(Set.of(1L)))
+                .thenReturn(List.of(member1));
+
+        memberWriteBehind.enqueue(1L, "First");
+        memberWriteBehind.enqueue(2L, "Second");
+        memberWriteBehind.discard(2L);
+        memberWriteBehind.stop();
+
+        assertEquals("First", member1.getName());
+        verify(memberRepository).findAllByIdForUpdate(Set.of(1L));
+    }
+
+    @Test
+    void flush_whenChangeDiscardedBeforeMembersLocked_keepNameOfSynchronousUpdate() {
+        Member member = new Member(1L, "Name", LocalDateTime.now());
+
+        when(memberRepository.findAllByIdForUpdate(Set.of(1L)))
+                .thenAnswer(invocation -> {
+                    memberWriteBehind.discard(1L);
+                    member.setName("Synchronous");
+                    return List.of(member);
+                });
+
+        memberWriteBehind.enqueue(1L, "Queued");
+        memberWriteBehind.flush();
+
+        assertEquals("Synchronous", member.getName());
+    }
+
+    @Test
+    void enqueue_whenStopped_writeNameImmediately() {
+        Member member = new Member(1L, "Name", LocalDateTime.now());
+
+        when(memberRepository.findByIdForUpdate(1L))
+                .thenReturn(Optional.of(member));
+
+        memberWriteBehind.stop();
+        memberWriteBehind.enqueue(1L, "NewName");
+
+        assertEquals("NewName", member.getName());
+    }
+}
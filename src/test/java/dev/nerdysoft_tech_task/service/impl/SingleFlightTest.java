@@ -0,0 +1,104 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    @Test
+    void execute_whenSameKeyIsInFlight_shareOneCallAndCountCollapsed() throws Exception {
+        int callers = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("book.findById", 1L, () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return "Title";
+            })));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("book.findById", 1L, () -> {
+                    calls.incrementAndGet();
+                    return "Other";
+                })));
+            }
+            while (collapsed() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("Title", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(callers - 1, collapsed());
+    }
+
+    @Test
+    void execute_whenCallFails_rethrowSameExceptionAndForgetCall() {
+        NotFoundException exception = new NotFoundException("Book not found by id 1");
+
+        NotFoundException actual = assertThrows(
+                NotFoundException.class,
+                () -> singleFlight.execute("book.findById", 1L, () -> {
+                    throw exception;
+                })
+        );
+
+        assertSame(exception, actual);
+        assertEquals("Title", singleFlight.execute("book.findById", 1L, () -> "Title"));
+    }
+
+    @Test
+    void execute_whenKeysDiffer_runEachCall() {
+        assertEquals("First", singleFlight.execute("book.findById", 1L, () -> "First"));
+        assertEquals("Second", singleFlight.execute("book.findById", 2L, () -> "Second"));
+        assertEquals("Books", singleFlight.execute("member.findMemberBooks", 1L, () -> "Books"));
+
+        assertEquals(0, collapsed());
+    }
+
+    private double collapsed() {
+        return meterRegistry
+                .find("singleflight.calls")
+                .tag("result", "collapsed")
+                .counters()
+                .stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static void await(
+            CountDownLatch latch
+    ) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.dto.AvailabilityStatsDTO;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.BranchStockRepository;
+import dev.nerdysoft_tech_task.repository.LoanRepository;
+import dev.nerdysoft_tech_task.repository.StockSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatsServiceImplTest {
+
+    @Spy
+    private AvailabilityCounters availabilityCounters = new AvailabilityCounters();
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private StockSlotRepository stockSlotRepository;
+
+    @Mock
+    private BranchStockRepository branchStockRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @InjectMocks
+    private StatsServiceImpl statsService;
+
+    @Test
+    void findAvailabilityStats_whenChangesCounted_returnTotalsWithoutScanning() {
+        availabilityCounters.titleAdded();
+        availabilityCounters.copiesChanged(4);
+        availabilityCounters.copyBorrowed(true);
+        availabilityCounters.copyBorrowed(false);
+        availabilityCounters.copyReturned(false);
+
+        AvailabilityStatsDTO actual = statsService.findAvailabilityStats();
+
+        assertEquals(1, actual.totalTitles());
+        assertEquals(5, actual.totalCopies());
+        assertEquals(4, actual.availableCopies());
+        assertEquals(1, actual.copiesOnLoan());
+        assertEquals(1, actual.membersWithLoans());
+        assertNull(actual.reconciledAt());
+    }
+
+    @Test
+    void reconcileAvailabilityStats_whenCountersDrifted_replaceThemWithCountedTotals() {
+        availabilityCounters.titleAdded();
+        availabilityCounters.copyBorrowed(true);
+
+        when(bookRepository.count())
+                .thenReturn(3L);
+        when(bookRepository.sumAmount())
+                .thenReturn(10L);
+        when(stockSlotRepository.sumAmount())
+                .thenReturn(4L);
+        when(branchStockRepository.sumAmount())
+                .thenReturn(5L);
+        when(loanRepository.count())
+                .thenReturn(2L);
+        when(loanRepository.countMembers())
+                .thenReturn(1L);
+
+        statsService.reconcileAvailabilityStats();
+
+        AvailabilityStatsDTO actual = statsService.findAvailabilityStats();
+        assertEquals(3, actual.totalTitles());
+        assertEquals(21, actual.totalCopies());
+        assertEquals(19, actual.availableCopies());
+        assertEquals(2, actual.copiesOnLoan());
+        assertEquals(1, actual.membersWithLoans());
+        assertNotNull(actual.reconciledAt());
+    }
+
+    @Test
+    void reconcile_whenChangedWhileCounting_keepChange() {
+        AvailabilityCounters.Totals start = availabilityCounters.current();
+        availabilityCounters.copiesChanged(2);
+
+        availabilityCounters.reconcile(start, new AvailabilityCounters.Totals(1, 10, 0, 0));
+
+        assertEquals(new AvailabilityCounters.Totals(1, 12, 0, 0), availabilityCounters.current());
+    }
+}
@@ -0,0 +1,179 @@
+package dev.nerdysoft_tech_task.service.impl;
+
+import dev.nerdysoft_tech_task.model.Book;
+import dev.nerdysoft_tech_task.model.StockSlot;
+import dev.nerdysoft_tech_task.repository.BookRepository;
+import dev.nerdysoft_tech_task.repository.StockSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockSlotServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private StockSlotRepository stockSlotRepository;
+
+    @InjectMocks
+    private StockSlotServiceImpl stockSlotService;
+
+    @Test
+    void take_whenBookHasNoSlotsAndEnoughAmount_decreaseBookAmountOnly() {
+        when(bookRepository.decreaseAmount(1L, 2))
+                .thenReturn(1);
+
+        assertTrue(stockSlotService.take(1L, 2));
+
+        verify(bookRepository).decreaseAmount(1L, 2);
+        verifyNoInteractions(stockSlotRepository);
+    }
+
+    @Test
+    void take_whenUnlockedSlotHasCopies_decreaseThatSlotWithoutWaiting() {
+        when(bookRepository.decreaseAmount(1L, 1))
+                .thenReturn(0);
+        when(stockSlotRepository.decreaseRandomUnlockedSlot(1L))
+                .thenReturn(1);
+
+        assertTrue(stockSlotService.take(1L, 1));
+
+        verify(stockSlotRepository).decreaseRandomUnlockedSlot(1L);
+        verify(stockSlotRepository, never()).decreaseRandomSlot(1L);
+    }
+
+    @Test
+    void take_whenAllSlotsAreEmpty_returnFalse() {
+        when(bookRepository.decreaseAmount(1L, 1))
+                .thenReturn(0);
+        when(stockSlotRepository.decreaseRandomUnlockedSlot(1L))
+                .thenReturn(0);
+        when(stockSlotRepository.decreaseRandomSlot(1L))
+                .thenReturn(0);
+        when(stockSlotRepository.hasNonEmptySlot(1L))
+                .thenReturn(false);
+
+        assertFalse(stockSlotService.take(1L, 1));
+    }
+
+    @Test
+    void take_whenWaitedSlotWasDrainedButOtherSlotHasCopies_retryPick() {
+        when(bookRepository.decreaseAmount(1L, 1))
+                .thenReturn(0);
+        when(stockSlotRepository.decreaseRandomUnlockedSlot(1L))
+                .thenReturn(0, 1);
+        when(stockSlotRepository.decreaseRandomSlot(1L))
+                .thenReturn(0);
+        when(stockSlotRepository.hasNonEmptySlot(1L))
+                .thenReturn(true);
+
+        assertTrue(stockSlotService.take(1L, 1));
+
+        verify(stockSlotRepository, times(2)).decreaseRandomUnlockedSlot(1L);
+    }
+
+    @Test
+    void take_whenSlotsRunDryHalfWay_putTakenCopiesBack() {
+        when(bookRepository.decreaseAmount(1L, 3))
+                .thenReturn(0);
+        when(stockSlotRepository.decreaseRandomUnlockedSlot(1L))
+                .thenReturn(1, 1, 0);
+        when(stockSlotRepository.decreaseRandomSlot(1L))
+                .thenReturn(0);
+        when(stockSlotRepository.hasNonEmptySlot(1L))
+                .thenReturn(false);
+        when(bookRepository.increaseUnshardedAmount(1L, 2))
+                .thenReturn(0);
+        when(stockSlotRepository.increaseRandomUnlockedSlot(1L, 2))
+                .thenReturn(1);
+
+        assertFalse(stockSlotService.take(1L, 3));
+
+        verify(stockSlotRepository).increaseRandomUnlockedSlot(1L, 2);
+    }
+
+    @Test
+    void put_whenBookIsNotSharded_increaseBookAmountWithoutTouchingSlots() {
+        when(bookRepository.increaseUnshardedAmount(1L, 1))
+                .thenReturn(1);
+
+        stockSlotService.put(1L, 1);
+
+        verifyNoInteractions(stockSlotRepository);
+        verify(bookRepository, never()).increaseAmount(anyLong(), anyInt());
+    }
+
+    @Test
+    void put_whenBookHasNoSlots_increaseBookAmount() {
+        when(stockSlotRepository.increaseRandomUnlockedSlot(1L, 1))
+                .thenReturn(0);
+        when(stockSlotRepository.increaseRandomSlot(1L, 1))
+                .thenReturn(0);
+
+        stockSlotService.put(1L, 1);
+
+        verify(bookRepository).increaseAmount(1L, 1);
+    }
+
+    @Test
+    void enableSlots_whenBookHasNoSlots_spreadAmountEvenlyAndMarkBookSharded() {
+        Book book = new Book(1L, "Title", "Name Surname", 10, new HashSet<>(), false, null);
+
+        when(bookRepository.findByIdForUpdate(1L))
+                .thenReturn(Optional.of(book));
+        when(stockSlotRepository.countByBookId(1L))
+                .thenReturn(0L);
+        when(stockSlotRepository.sumAmountByBookId(1L))
+                .thenReturn(10L);
+
+        stockSlotService.enableSlots(1L, 4);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockSlot>> slotsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(stockSlotRepository).saveAll(slotsCaptor.capture());
+        assertEquals(
+                List.of(3, 3, 2, 2),
+                slotsCaptor.getValue().stream().map(StockSlot::getAmount).toList()
+        );
+        assertEquals(0, book.getAmount());
+        assertEquals(10, book.getAvailableAmount());
+        assertTrue(book.isSharded());
+        verify(bookRepository).save(book);
+    }
+
+    @Test
+    void disableSlots_whenBookIsSharded_moveSlotsAmountBackToBook() {
+        Book book = new Book(1L, "Title", "Name Surname", 0, new HashSet<>(), true, 5);
+        List<StockSlot> slots = List.of(
+                new StockSlot(1L, book, 0, 3),
+                new StockSlot(2L, book, 1, 2)
+        );
+
+        when(bookRepository.findByIdForUpdate(1L))
+                .thenReturn(Optional.of(book));
+        when(stockSlotRepository.findAllByBookId(1L))
+                .thenReturn(slots);
+
+        stockSlotService.disableSlots(1L);
+
+        assertEquals(5, book.getAmount());
+        assertEquals(5, book.getAvailableAmount());
+        assertFalse(book.isSharded());
+        verify(stockSlotRepository).deleteAllInBatch(slots);
+        verify(bookRepository).save(book);
+        verify(bookRepository, never()).increaseAmount(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,74 @@
+package dev.nerdysoft_tech_task.sqlstats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatsListener listener;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new SqlStatsListener();
+        request = new MockHttpServletRequest("GET", "/api/v1/members/1/books");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/members/{member_id}/books");
+    }
+
+    @Test
+    void doFilter_whenRequestRunsStatements_recordStatsTaggedWithUriPattern() throws Exception {
+        SqlStatsFilter filter = new SqlStatsFilter(meterRegistry, Duration.ofSeconds(10), 20, 50);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            listener.inspect("select 1");
+            listener.jdbcExecuteStatementStart();
+            listener.jdbcExecuteStatementEnd();
+            listener.onPostLoad(null);
+            listener.onPostLoad(null);
+            listener.onInitializeCollection(null);
+        });
+
+        assertEquals(2.0, meterRegistry
+                .get("hibernate.request.entities.loaded")
+                .tag("method", "GET")
+                .tag("uri", "/members/{member_id}/books")
+                .summary()
+                .totalAmount());
+        assertEquals(1.0, meterRegistry.get("hibernate.request.statements").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("hibernate.request.collections.initialized").summary().totalAmount());
+        assertNull(meterRegistry.find("hibernate.request.slow").counter());
+        assertNull(RequestSqlStats.current());
+    }
+
+    @Test
+    void doFilter_whenStatementThresholdReached_countSlowRequest() throws Exception {
+        SqlStatsFilter filter = new SqlStatsFilter(meterRegistry, Duration.ofSeconds(10), 2, 1);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            listener.inspect("select 1");
+            listener.inspect("select 2");
+            assertEquals(1, RequestSqlStats.current().getStatements().size());
+        });
+
+        assertEquals(1.0, meterRegistry.get("hibernate.request.slow").counter().count());
+    }
+
+    @Test
+    void listener_whenNoRequestIsRunning_ignoreCallbacks() {
+        assertEquals("select 1", listener.inspect("select 1"));
+        listener.flushStart();
+        listener.flushEnd(0, 0);
+
+        assertNull(RequestSqlStats.current());
+    }
+}
@@ -0,0 +1,110 @@
+package dev.nerdysoft_tech_task.tracing;
+
+import com.jayway.jsonpath.JsonPath;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "custom.rateLimit.enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+class LayerTracingTest {
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @BeforeEach
+    void setUp() {
+        spanExporter.reset();
+    }
+
+    @Test
+    void findById_whenNotFound_returnTraceIdOfControllerServiceAndRepositorySpans() throws Exception {
+        String body = mockMvc.perform(get("/books/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String traceId = JsonPath.read(body, "$.traceId");
+
+        Map<String, SpanData> spans = finishedSpans(traceId);
+        SpanData controller = spans.get("book-controller.find-by-id");
+        SpanData service = spans.get("book-service-impl.find-by-id");
+        SpanData repository = spans.get("book-repository.find-by-id");
+
+        assertNotNull(controller, () -> "No controller span in " + spans.keySet());
+        assertEquals(controller.getSpanId(), service.getParentSpanId());
+        assertEquals(service.getSpanId(), repository.getParentSpanId());
+    }
+
+    @Test
+    void createMember_observeCommitInsideServiceSpan() throws Exception {
+        String body = mockMvc.perform(post("/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Tracing Test\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        mockMvc.perform(delete("/members/{id}", ((Number) JsonPath.read(body, "$.id")).longValue()))
+                .andExpect(status().isNoContent());
+
+        List<SpanData> spans = finishedSpans();
+        SpanData service = spans.stream()
+                .filter(span -> span.getName().equals("member-service-impl.create-member"))
+                .findFirst()
+                .orElseThrow();
+
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("commit")
+                && span.getParentSpanId().equals(service.getSpanId())));
+    }
+
+    private List<SpanData> finishedSpans() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return spanExporter.getFinishedSpanItems();
+    }
+
+    private Map<String, SpanData> finishedSpans(
+            String traceId
+    ) {
+        return finishedSpans()
+                .stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .collect(Collectors.toMap(SpanData::getName, Function.identity(), (first, second) -> first));
+    }
+}
@@ -0,0 +1,71 @@
+package dev.nerdysoft_tech_task.validation;
+
+import dev.nerdysoft_tech_task.dto.BookDTO;
+import dev.nerdysoft_tech_task.dto.MemberDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hand-written validators must report exactly what Bean Validation reports for the DTO annotations.
+ */
+class DTOValidatorTest {
+
+    private static final Validator BEAN_VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private static final String[] TEXTS = {
+            null, "", " ", "  \t", "ab", "Ab", "abc", "Abc", "ABC", " Abc", "Ab\nc", "Abc\r", "Ab ",
+            "Name Surname", "Name surname", "name Surname", "Name  Surname", "Name Surname ", "N Surname",
+            "Name S", "Name Surname Third", "Name Surnam3", "Name Surname\n", "Name-Surname", "Élan Surname"
+    };
+
+    static Stream<BookDTO> books() {
+        return Arrays.stream(TEXTS)
+                .flatMap(title -> Arrays.stream(TEXTS)
+                        .flatMap(author -> Stream.of(null, -1, 0, 5)
+                                .map(amount -> new BookDTO(null, title, author, amount))));
+    }
+
+    static Stream<MemberDTO> members() {
+        return Arrays.stream(TEXTS).map(name -> new MemberDTO(null, name, null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("books")
+    void validate_whenBookDTO_reportSameErrorsAsBeanValidation(BookDTO dto) {
+        assertEquals(beanValidationErrors(dto), errors(new BookDTOValidator(), dto));
+    }
+
+    @ParameterizedTest
+    @MethodSource("members")
+    void validate_whenMemberDTO_reportSameErrorsAsBeanValidation(MemberDTO dto) {
+        assertEquals(beanValidationErrors(dto), errors(new MemberDTOValidator(), dto));
+    }
+
+    private static Set<String> beanValidationErrors(Object dto) {
+        return BEAN_VALIDATOR.validate(dto)
+                .stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> errors(DTOValidator<?> validator, Object dto) {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(dto, "dto");
+        validator.validate(dto, errors);
+
+        return errors.getFieldErrors()
+                .stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.toSet());
+    }
+}